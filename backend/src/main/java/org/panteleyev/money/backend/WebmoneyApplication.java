@@ -20,6 +20,7 @@ public class WebmoneyApplication {
 	public static final String TRANSACTION_ROOT = API_ROOT + "/transactions";
 	public static final String ICON_ROOT = API_ROOT + "/icons";
 	public static final String DOCUMENT_ROOT = API_ROOT + "/documents";
+	public static final String ADMIN_ROOT = API_ROOT + "/admin";
 
 	public static void main(String[] args) {
 		SpringApplication.run(WebmoneyApplication.class, args);
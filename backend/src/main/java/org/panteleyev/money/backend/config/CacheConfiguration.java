@@ -5,15 +5,15 @@
 package org.panteleyev.money.backend.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.Cache;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
-
 
 @Configuration
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfiguration {
     private static final String CACHE_ICONS = "cache_icons";
     private static final String CACHE_CATEGORIES = "cache_categories";
@@ -22,41 +22,48 @@ public class CacheConfiguration {
     private static final String CACHE_CONTACTS = "cache_contacts";
     private static final String CACHE_DOCUMENTS = "cache_documents";
 
+    private final CacheProperties cacheProperties;
+
+    public CacheConfiguration(CacheProperties cacheProperties) {
+        this.cacheProperties = cacheProperties;
+    }
+
     @Bean
     public Cache iconCache() {
-        return createCache(CACHE_ICONS);
+        return createCache(CACHE_ICONS, "icons");
     }
 
     @Bean
     public Cache categoryCache() {
-        return createCache(CACHE_CATEGORIES);
+        return createCache(CACHE_CATEGORIES, "categories");
     }
 
     @Bean
     public Cache accountCache() {
-        return createCache(CACHE_ACCOUNTS);
+        return createCache(CACHE_ACCOUNTS, "accounts");
     }
 
     @Bean
     public Cache currencyCache() {
-        return createCache(CACHE_CURRENCIES);
+        return createCache(CACHE_CURRENCIES, "currencies");
     }
 
     @Bean
     public Cache contactCache() {
-        return createCache(CACHE_CONTACTS);
+        return createCache(CACHE_CONTACTS, "contacts");
     }
 
     @Bean
     public Cache documentCache() {
-        return createCache(CACHE_DOCUMENTS);
+        return createCache(CACHE_DOCUMENTS, "documents");
     }
 
-    private static Cache createCache(String name) {
+    private Cache createCache(String name, String propertyName) {
+        var settings = cacheProperties.get(propertyName);
         return new CaffeineCache(name, Caffeine.newBuilder()
-                .initialCapacity(1000)
-                .maximumSize(10000)
-                .expireAfterWrite(60, TimeUnit.MINUTES)
+                .initialCapacity(settings.initialCapacity())
+                .maximumSize(settings.maximumSize())
+                .expireAfterWrite(settings.expireAfterWrite())
                 .recordStats()
                 .build());
     }
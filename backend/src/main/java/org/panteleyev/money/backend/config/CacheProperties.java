@@ -0,0 +1,44 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Cache settings by cache name, e.g. {@code money.cache.accounts.maximum-size}. Missing values are replaced with
+ * defaults: initial capacity 1000, maximum size 10000, expiration 60 minutes.
+ *
+ * @param cache settings by cache name
+ */
+@ConfigurationProperties("money")
+public record CacheProperties(Map<String, Settings> cache) {
+    /**
+     * Settings of a single cache.
+     *
+     * @param initialCapacity  initial capacity
+     * @param maximumSize      maximum number of entries
+     * @param expireAfterWrite time after which entry is evicted
+     */
+    public record Settings(Integer initialCapacity, Long maximumSize, Duration expireAfterWrite) {
+        private static final int DEFAULT_INITIAL_CAPACITY = 1000;
+        private static final long DEFAULT_MAXIMUM_SIZE = 10000;
+        private static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(60);
+
+        public static final Settings DEFAULT = new Settings(null, null, null);
+
+        public Settings {
+            initialCapacity = initialCapacity == null ? DEFAULT_INITIAL_CAPACITY : initialCapacity;
+            maximumSize = maximumSize == null ? DEFAULT_MAXIMUM_SIZE : maximumSize;
+            expireAfterWrite = expireAfterWrite == null ? DEFAULT_EXPIRE_AFTER_WRITE : expireAfterWrite;
+        }
+    }
+
+    public Settings get(String name) {
+        return cache == null ? Settings.DEFAULT : cache.getOrDefault(name, Settings.DEFAULT);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Data source that limits the number of connections used at the same time. With virtual threads the number of
+ * concurrent requests is not bounded by the servlet thread pool, so requests wait for a permit in a fair queue
+ * before they reach the connection pool. Permit is released when connection is closed.
+ * <p>
+ * Closing this data source closes the target one if it is closeable, e.g. connection pool.
+ */
+public final class ConcurrencyLimitedDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final int maxConcurrency;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency, Duration acquireTimeout) {
+        super(target);
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be >= 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return wrap(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return wrap(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Timeout waiting for JDBC concurrency permit");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(ex);
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        var released = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Limited " + connection;
+                    default -> {
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    }
+                }
+        );
+    }
+}
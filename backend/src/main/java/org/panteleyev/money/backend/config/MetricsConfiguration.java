@@ -0,0 +1,34 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.stream.Stream;
+
+/**
+ * Enables {@link io.micrometer.core.annotation.Timed} on Spring beans. Timers created by the aspect are tagged with
+ * class, method and exception, the latter is {@code none} for successful calls. Methods returning {@link Stream} are
+ * not timed as they return before any row is read.
+ * <p>
+ * GraphQL fields and mutations are measured by the auto-configured observation instrumentation
+ * ({@code graphql.request} and {@code graphql.datafetcher} timers tagged with field name and outcome).
+ */
+@Configuration
+public class MetricsConfiguration {
+    public static final String REPOSITORY_TIMER = "org.panteleyev.money.repository";
+    public static final String BALANCE_TIMER = "org.panteleyev.money.account.balance";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry, joinPoint ->
+                joinPoint.getSignature() instanceof MethodSignature signature
+                        && Stream.class.isAssignableFrom(signature.getReturnType()));
+    }
+}
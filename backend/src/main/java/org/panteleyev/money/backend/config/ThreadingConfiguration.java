@@ -0,0 +1,46 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Request execution settings.
+ * <p>
+ * Virtual threads are enabled by {@code spring.threads.virtual.enabled}. In this mode Tomcat handles requests on
+ * virtual threads, and the application task executor used for {@code StreamingResponseBody} downloads and GraphQL
+ * controller methods creates a virtual thread per task. Blocking JDBC calls are then bounded by
+ * {@link ConcurrencyLimitedDataSource} sized by the connection pool, so waiting requests queue in a fair order with
+ * {@code money.jdbc.acquire-timeout} instead of competing for pool connections.
+ */
+@Configuration
+public class ThreadingConfiguration {
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public static BeanPostProcessor jdbcConcurrencyLimiter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConcurrency,
+            @Value("${money.jdbc.acquire-timeout:30s}") Duration acquireTimeout
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof ConcurrencyLimitedDataSource))
+                {
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -4,12 +4,12 @@
  */
 package org.panteleyev.money.backend.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.panteleyev.money.backend.repository.AccountRepository;
 import org.panteleyev.money.backend.service.AccountService;
 import org.panteleyev.money.model.Account;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -18,15 +18,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
 
 import static org.panteleyev.money.backend.WebmoneyApplication.ACCOUNT_ROOT;
-import static org.panteleyev.money.backend.controller.JsonUtil.writeStreamAsJsonArray;
 
 @Tag(name = "Accounts")
 @Controller
@@ -35,18 +35,29 @@ import static org.panteleyev.money.backend.controller.JsonUtil.writeStreamAsJson
 public class AccountController {
     private final AccountRepository accountRepository;
     private final AccountService service;
-    private final ObjectMapper objectMapper;
+    private final RecordStreamer recordStreamer;
+    private final RecordLister recordLister;
 
-    public AccountController(AccountRepository accountRepository, AccountService service, ObjectMapper objectMapper) {
+    public AccountController(
+            AccountRepository accountRepository,
+            AccountService service,
+            RecordStreamer recordStreamer,
+            RecordLister recordLister
+    ) {
         this.accountRepository = accountRepository;
         this.service = service;
-        this.objectMapper = objectMapper;
+        this.recordStreamer = recordStreamer;
+        this.recordLister = recordLister;
     }
 
     @Operation(summary = "Get all accounts")
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Account>> getAccounts() {
-        return ResponseEntity.ok(accountRepository.getAll());
+    public ResponseEntity<List<Account>> getAccounts(
+            @RequestParam(required = false) Long changedSince,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return recordLister.list(accountRepository, changedSince, after, limit);
     }
 
     @Operation(summary = "Get account")
@@ -75,13 +86,15 @@ public class AccountController {
     }
 
     @Operation(summary = "Get all accounts as stream")
-    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<StreamingResponseBody> getTransactionStream() {
-        StreamingResponseBody body = (OutputStream out) -> {
-            try (var stream = accountRepository.getStream()) {
-                writeStreamAsJsonArray(objectMapper, stream, out);
-            }
-        };
-        return ResponseEntity.accepted().body(body);
+    @GetMapping(
+            value = "/stream",
+            produces = {MediaType.APPLICATION_OCTET_STREAM_VALUE, RecordStreamer.APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<StreamingResponseBody> getTransactionStream(
+            @RequestParam(required = false) Long changedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return recordStreamer.stream(accept, () -> changedSince == null ?
+                accountRepository.getStream() : accountRepository.getStreamChangedSince(changedSince));
     }
 }
@@ -0,0 +1,45 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.panteleyev.money.backend.model.AccountBalanceMismatch;
+import org.panteleyev.money.backend.service.AccountService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.util.List;
+
+import static org.panteleyev.money.backend.WebmoneyApplication.ADMIN_ROOT;
+
+@Tag(name = "Administration")
+@Controller
+@RequestMapping(ADMIN_ROOT)
+public class AdminController {
+    private final AccountService accountService;
+
+    public AdminController(AccountService accountService) {
+        this.accountService = accountService;
+    }
+
+    @Operation(summary = "Get accounts with inconsistent balances")
+    @GetMapping(value = "/balances/verify", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<AccountBalanceMismatch>> verifyBalances() {
+        return ResponseEntity.ok(accountService.verifyBalances());
+    }
+
+    @Operation(summary = "Rebuild account balances from transactions, returns fixed accounts")
+    @Transactional(rollbackFor = Exception.class)
+    @PostMapping(value = "/balances/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<AccountBalanceMismatch>> rebuildBalances() {
+        return ResponseEntity.ok(accountService.rebuildBalances());
+    }
+}
@@ -4,12 +4,12 @@
  */
 package org.panteleyev.money.backend.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.panteleyev.money.backend.service.CategoryService;
 import org.panteleyev.money.backend.repository.CategoryRepository;
 import org.panteleyev.money.model.Category;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -18,15 +18,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
 
 import static org.panteleyev.money.backend.WebmoneyApplication.CATEGORY_ROOT;
-import static org.panteleyev.money.backend.controller.JsonUtil.writeStreamAsJsonArray;
 
 @Tag(name = "Categories")
 @Controller
@@ -35,18 +35,29 @@ import static org.panteleyev.money.backend.controller.JsonUtil.writeStreamAsJson
 public class CategoryController {
     private final CategoryRepository repository;
     private final CategoryService service;
-    private final ObjectMapper objectMapper;
+    private final RecordStreamer recordStreamer;
+    private final RecordLister recordLister;
 
-    public CategoryController(CategoryRepository repository, CategoryService service, ObjectMapper objectMapper) {
+    public CategoryController(
+            CategoryRepository repository,
+            CategoryService service,
+            RecordStreamer recordStreamer,
+            RecordLister recordLister
+    ) {
         this.repository = repository;
         this.service = service;
-        this.objectMapper = objectMapper;
+        this.recordStreamer = recordStreamer;
+        this.recordLister = recordLister;
     }
 
     @Operation(summary = "Get all categories")
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Category>> getCategories() {
-        return ResponseEntity.ok(repository.getAll());
+    public ResponseEntity<List<Category>> getCategories(
+            @RequestParam(required = false) Long changedSince,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return recordLister.list(repository, changedSince, after, limit);
     }
 
     @Operation(summary = "Get category")
@@ -75,13 +86,15 @@ public class CategoryController {
     }
 
     @Operation(summary = "Get all categories as stream")
-    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<StreamingResponseBody> getTransactionStream() {
-        StreamingResponseBody body = (OutputStream out) -> {
-            try (var stream = repository.getStream()) {
-                writeStreamAsJsonArray(objectMapper, stream, out);
-            }
-        };
-        return ResponseEntity.accepted().body(body);
+    @GetMapping(
+            value = "/stream",
+            produces = {MediaType.APPLICATION_OCTET_STREAM_VALUE, RecordStreamer.APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<StreamingResponseBody> getTransactionStream(
+            @RequestParam(required = false) Long changedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return recordStreamer.stream(accept, () -> changedSince == null ?
+                repository.getStream() : repository.getStreamChangedSince(changedSince));
     }
 }
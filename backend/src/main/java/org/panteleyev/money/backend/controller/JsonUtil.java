@@ -5,11 +5,17 @@
 package org.panteleyev.money.backend.controller;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 final class JsonUtil {
@@ -34,6 +40,47 @@ final class JsonUtil {
         }
     }
 
+    /**
+     * Reads JSON array element by element and passes elements to the consumer in chunks. Only one chunk is kept
+     * in memory.
+     *
+     * @param mapper        object mapper
+     * @param inputStream   input stream
+     * @param clazz         element class
+     * @param chunkSize     maximum number of elements passed to the consumer at once
+     * @param chunkConsumer chunk consumer
+     * @throws IOException if input is not a valid JSON array
+     */
+    static <T> void readJsonArrayInChunks(
+            ObjectMapper mapper,
+            InputStream inputStream,
+            Class<T> clazz,
+            int chunkSize,
+            Consumer<List<T>> chunkConsumer
+    ) throws IOException {
+        try (var parser = mapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "JSON array expected");
+            }
+
+            var chunk = new ArrayList<T>(chunkSize);
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unexpected end of JSON array");
+                }
+                chunk.add(mapper.readValue(parser, clazz));
+                if (chunk.size() == chunkSize) {
+                    chunkConsumer.accept(List.copyOf(chunk));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(List.copyOf(chunk));
+            }
+        }
+    }
+
     private JsonUtil() {
     }
 }
@@ -0,0 +1,89 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.controller;
+
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.repository.ChangeRepository;
+import org.panteleyev.money.backend.repository.MoneyRepository;
+import org.panteleyev.money.model.MoneyRecord;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.panteleyev.money.backend.model.RecordPage.MAX_PAGE_SIZE;
+
+/**
+ * Writes lists of records. Each response contains {@link #CHANGE_WATERMARK_HEADER} header, clients pass its value as
+ * changedSince parameter of the next incremental request. Watermark is taken before records are read.
+ */
+@Component
+final class RecordLister {
+    static final String CHANGE_WATERMARK_HEADER = "X-Change-Watermark";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final ChangeRepository changeRepository;
+
+    RecordLister(ChangeRepository changeRepository) {
+        this.changeRepository = changeRepository;
+    }
+
+    /**
+     * Returns records as JSON array. If cursor or page size is specified, only one page is returned. Cursor of the
+     * next page is passed in {@link #NEXT_CURSOR_HEADER} header which is absent for the last page.
+     *
+     * @param repository   repository
+     * @param changedSince change id, null for all records
+     * @param after        cursor of the previous page, null for the first page
+     * @param limit        page size, null for maximum page size
+     * @return response
+     */
+    <T extends MoneyRecord> ResponseEntity<List<T>> list(
+            MoneyRepository<T> repository,
+            Long changedSince,
+            String after,
+            Integer limit
+    ) {
+        if (after == null && limit == null) {
+            return list(() -> changedSince == null ?
+                    repository.getAll() : repository.getChangedSince(changedSince));
+        }
+
+        var pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        RecordCursor<Long> cursor;
+        try {
+            cursor = after == null ? null : RecordCursor.decode(after, Long::valueOf);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        var watermark = changeRepository.getWatermark();
+        var page = repository.getPage(changedSince == null ? 0 : changedSince, cursor, pageSize);
+        var response = ResponseEntity.ok()
+                .header(CHANGE_WATERMARK_HEADER, Long.toString(watermark));
+        if (page.hasNextPage()) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.records());
+    }
+
+    /**
+     * Returns list as JSON array.
+     *
+     * @param listSupplier list supplier
+     * @return response
+     */
+    <T> ResponseEntity<List<T>> list(Supplier<List<T>> listSupplier) {
+        var watermark = changeRepository.getWatermark();
+        return ResponseEntity.ok()
+                .header(CHANGE_WATERMARK_HEADER, Long.toString(watermark))
+                .body(listSupplier.get());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.panteleyev.money.backend.repository.ChangeRepository;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.panteleyev.money.backend.controller.JsonUtil.writeStreamAsJsonArray;
+import static org.panteleyev.money.backend.controller.RecordLister.CHANGE_WATERMARK_HEADER;
+
+/**
+ * Writes streams of records as arrays. Records are encoded as Smile if client explicitly accepts it, otherwise as
+ * JSON. Compression is done by the servlet container. Watermark for the next incremental request is passed in
+ * {@link RecordLister#CHANGE_WATERMARK_HEADER} header.
+ */
+@Component
+final class RecordStreamer {
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final ChangeRepository changeRepository;
+
+    RecordStreamer(ObjectMapper objectMapper, ChangeRepository changeRepository) {
+        this.jsonMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(SmileFactory.builder()
+                .disable(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT)
+                .build());
+        this.changeRepository = changeRepository;
+    }
+
+    <T> ResponseEntity<StreamingResponseBody> stream(String accept, Supplier<Stream<T>> streamSupplier) {
+        var smile = acceptsSmile(accept);
+        var mapper = smile ? smileMapper : jsonMapper;
+        var watermark = changeRepository.getWatermark();
+
+        StreamingResponseBody body = (OutputStream out) -> {
+            try (var stream = streamSupplier.get()) {
+                writeStreamAsJsonArray(mapper, stream, out);
+            }
+        };
+        return ResponseEntity.accepted()
+                .contentType(smile ? APPLICATION_SMILE : MediaType.APPLICATION_OCTET_STREAM)
+                .header(CHANGE_WATERMARK_HEADER, Long.toString(watermark))
+                .body(body);
+    }
+
+    private static boolean acceptsSmile(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(APPLICATION_SMILE::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+}
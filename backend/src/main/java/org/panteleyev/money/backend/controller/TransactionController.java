@@ -7,8 +7,16 @@ package org.panteleyev.money.backend.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.panteleyev.money.backend.model.BatchRecordStatus;
+import org.panteleyev.money.backend.model.DeletedRecord;
 import org.panteleyev.money.backend.repository.TransactionRepository;
+import org.panteleyev.money.backend.service.TransactionService;
 import org.panteleyev.money.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -17,33 +25,66 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.OutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import static org.panteleyev.money.backend.WebmoneyApplication.TRANSACTION_ROOT;
-import static org.panteleyev.money.backend.controller.JsonUtil.writeStreamAsJsonArray;
+import static org.panteleyev.money.backend.controller.JsonUtil.readJsonArrayInChunks;
 
 @Tag(name = "Transactions")
 @Controller
 @CrossOrigin
 @RequestMapping(TRANSACTION_ROOT)
 public class TransactionController {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionController.class);
+
     private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
     private final ObjectMapper objectMapper;
+    private final RecordStreamer recordStreamer;
+    private final RecordLister recordLister;
+    private final int batchChunkSize;
 
-    public TransactionController(TransactionRepository transactionRepository, ObjectMapper objectMapper) {
+    public TransactionController(
+            TransactionRepository transactionRepository,
+            TransactionService transactionService,
+            ObjectMapper objectMapper,
+            RecordStreamer recordStreamer,
+            RecordLister recordLister,
+            @Value("${money.batch.chunk-size}") int batchChunkSize
+    ) {
         this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
         this.objectMapper = objectMapper;
+        this.recordStreamer = recordStreamer;
+        this.recordLister = recordLister;
+        this.batchChunkSize = batchChunkSize;
     }
 
     @Operation(summary = "Get all transactions")
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Transaction>> getTransactions() {
-        return ResponseEntity.ok(transactionRepository.getAll());
+    public ResponseEntity<List<Transaction>> getTransactions(
+            @RequestParam(required = false) Long changedSince,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return recordLister.list(transactionRepository, changedSince, after, limit);
+    }
+
+    @Operation(summary = "Get transactions deleted since the specified change id")
+    @GetMapping(value = "/deleted", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<DeletedRecord>> getDeletedTransactions(
+            @RequestParam(defaultValue = "0") long changedSince
+    ) {
+        return recordLister.list(() -> transactionService.getDeletedSince(changedSince));
     }
 
     @Operation(summary = "Get transaction")
@@ -66,18 +107,60 @@ public class TransactionController {
             return ResponseEntity.badRequest().build();
         }
 
-        var rows = transactionRepository.insertOrUpdate(transaction);
-        return rows == 1 ? ResponseEntity.ok(transaction) : ResponseEntity.internalServerError().build();
+        return transactionService.put(transaction)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.internalServerError().build());
+    }
+
+    @Operation(summary = "Insert or update transactions")
+    @PutMapping(
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<BatchRecordStatus>> putTransactions(InputStream body) throws IOException {
+        var result = new ArrayList<BatchRecordStatus>();
+        readJsonArrayInChunks(objectMapper, body, Transaction.class, batchChunkSize,
+                chunk -> result.addAll(putChunk(chunk)));
+        return ResponseEntity.ok(result);
     }
 
     @Operation(summary = "Get all transactions as stream")
-    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<StreamingResponseBody> getTransactionStream() {
-        StreamingResponseBody body = (OutputStream out) -> {
-            try (var stream = transactionRepository.getStream()) {
-                writeStreamAsJsonArray(objectMapper, stream, out);
+    @GetMapping(
+            value = "/stream",
+            produces = {MediaType.APPLICATION_OCTET_STREAM_VALUE, RecordStreamer.APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<StreamingResponseBody> getTransactionStream(
+            @RequestParam(required = false) Long changedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return recordStreamer.stream(accept, () -> changedSince == null ?
+                transactionRepository.getStream() : transactionRepository.getStreamChangedSince(changedSince));
+    }
+
+    /**
+     * Stores chunk in a single database transaction. If chunk is rejected by the database, records are stored one by
+     * one to find out which of them cannot be stored. Other errors fail the whole request.
+     */
+    private List<BatchRecordStatus> putChunk(List<Transaction> chunk) {
+        try {
+            if (transactionService.createOrUpdateTransactions(chunk, List.of()).isPresent()) {
+                return chunk.stream().map(t -> BatchRecordStatus.ok(t.uuid())).toList();
             }
-        };
-        return ResponseEntity.accepted().body(body);
+            LOGGER.warn("Chunk of {} transactions was not stored, storing records one by one", chunk.size());
+        } catch (DataAccessException ex) {
+            LOGGER.warn("Chunk of {} transactions failed, storing records one by one", chunk.size(), ex);
+        }
+        return chunk.stream().map(this::putSingle).toList();
+    }
+
+    private BatchRecordStatus putSingle(Transaction transaction) {
+        try {
+            return transactionService.put(transaction)
+                    .map(t -> BatchRecordStatus.ok(t.uuid()))
+                    .orElseGet(() -> BatchRecordStatus.failed(transaction.uuid(), "Not updated"));
+        } catch (DataAccessException ex) {
+            LOGGER.warn("Transaction {} was not stored", transaction.uuid(), ex);
+            return BatchRecordStatus.failed(transaction.uuid(), ex.getMostSpecificCause().getMessage());
+        }
     }
 }
@@ -45,8 +45,8 @@ public class AccountGraphQLController {
     }
 
     @QueryMapping
-    public List<Account> accounts() {
-        return accountService.getAll();
+    public List<Account> accounts(@Argument Long changedSince) {
+        return changedSince == null ? accountService.getAll() : accountService.getChangedSince(changedSince);
     }
 
     @QueryMapping
@@ -35,8 +35,8 @@ public class CategoryGraphQLController {
     }
 
     @QueryMapping
-    public List<Category> categories() {
-        return categoryService.getAll();
+    public List<Category> categories(@Argument Long changedSince) {
+        return changedSince == null ? categoryService.getAll() : categoryService.getChangedSince(changedSince);
     }
 
     @QueryMapping
@@ -0,0 +1,23 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.graphql.controller;
+
+import org.panteleyev.money.backend.repository.ChangeRepository;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+@Controller
+public class ChangeGraphQLController {
+    private final ChangeRepository changeRepository;
+
+    public ChangeGraphQLController(ChangeRepository changeRepository) {
+        this.changeRepository = changeRepository;
+    }
+
+    @QueryMapping
+    public long changeWatermark() {
+        return changeRepository.getWatermark();
+    }
+}
@@ -35,8 +35,8 @@ public class ContactGraphQLController {
     }
 
     @QueryMapping
-    public List<Contact> contacts() {
-        return contactService.getAll();
+    public List<Contact> contacts(@Argument Long changedSince) {
+        return changedSince == null ? contactService.getAll() : contactService.getChangedSince(changedSince);
     }
 
     @QueryMapping
@@ -27,8 +27,8 @@ public class CurrencyGraphQLController {
     }
 
     @QueryMapping
-    public List<Currency> currencies() {
-        return service.getAll();
+    public List<Currency> currencies(@Argument Long changedSince) {
+        return changedSince == null ? service.getAll() : service.getChangedSince(changedSince);
     }
 
     @QueryMapping
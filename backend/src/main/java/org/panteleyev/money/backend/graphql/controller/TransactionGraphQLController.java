@@ -5,11 +5,16 @@
 package org.panteleyev.money.backend.graphql.controller;
 
 import org.panteleyev.money.backend.graphql.exception.GraphQLCreateException;
+import org.panteleyev.money.backend.graphql.exception.GraphQLInvalidArgumentException;
 import org.panteleyev.money.backend.graphql.exception.GraphQLNotFoundException;
 import org.panteleyev.money.backend.graphql.exception.GraphQLUpdateException;
 import org.panteleyev.money.backend.graphql.input.TransactionInput;
+import org.panteleyev.money.backend.graphql.input.TransactionUpdateInput;
+import org.panteleyev.money.backend.model.DeletedRecord;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.TransactionConnection;
 import org.panteleyev.money.backend.model.TransactionOperationResult;
-import org.panteleyev.money.backend.repository.TransactionRepository;
+import org.panteleyev.money.backend.model.TransactionsOperationResult;
 import org.panteleyev.money.backend.service.AccountService;
 import org.panteleyev.money.backend.service.ContactService;
 import org.panteleyev.money.backend.service.TransactionService;
@@ -18,32 +23,39 @@ import org.panteleyev.money.model.Contact;
 import org.panteleyev.money.model.ContactType;
 import org.panteleyev.money.model.Transaction;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
-import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.panteleyev.money.backend.model.RecordPage.MAX_PAGE_SIZE;
 
 @Controller
 public class TransactionGraphQLController {
     private final AccountService accountService;
     private final ContactService contactService;
-    private final TransactionRepository transactionRepository;
     private final TransactionService transactionService;
 
     public TransactionGraphQLController(
             AccountService accountService,
             ContactService contactService,
-            TransactionRepository transactionRepository,
             TransactionService transactionService
     ) {
         this.accountService = accountService;
         this.contactService = contactService;
-        this.transactionRepository = transactionRepository;
         this.transactionService = transactionService;
     }
 
@@ -53,6 +65,37 @@ public class TransactionGraphQLController {
                 .orElseThrow(() -> new GraphQLNotFoundException("Transaction", uuid));
     }
 
+    @QueryMapping
+    public List<Transaction> transactionsChangedSince(@Argument long changedSince) {
+        return transactionService.getChangedSince(changedSince);
+    }
+
+    @QueryMapping
+    public TransactionConnection transactionsConnection(
+            @Argument Long changedSince,
+            @Argument Integer first,
+            @Argument String after
+    ) {
+        var pageSize = first == null ? MAX_PAGE_SIZE : first;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new GraphQLInvalidArgumentException("First must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        RecordCursor<Long> cursor;
+        try {
+            cursor = after == null ? null : RecordCursor.decode(after, Long::valueOf);
+        } catch (IllegalArgumentException ex) {
+            throw new GraphQLInvalidArgumentException(ex.getMessage());
+        }
+
+        return transactionService.getConnection(changedSince == null ? 0 : changedSince, cursor, pageSize);
+    }
+
+    @QueryMapping
+    public List<DeletedRecord> deletedTransactions(@Argument long changedSince) {
+        return transactionService.getDeletedSince(changedSince);
+    }
+
     @QueryMapping
     public List<Transaction> transactionsByYearAndMonth(
             @Argument int year,
@@ -61,6 +104,32 @@ public class TransactionGraphQLController {
         return transactionService.getByYearAndMonth(year, month);
     }
 
+    @QueryMapping
+    public TransactionConnection transactionsByDateRange(
+            @Argument LocalDate from,
+            @Argument LocalDate to,
+            @Argument Integer first,
+            @Argument String after
+    ) {
+        if (!from.isBefore(to)) {
+            throw new GraphQLInvalidArgumentException("Invalid date range: " + from + " - " + to);
+        }
+
+        var pageSize = first == null ? MAX_PAGE_SIZE : first;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new GraphQLInvalidArgumentException("First must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        RecordCursor<LocalDate> cursor;
+        try {
+            cursor = after == null ? null : RecordCursor.decode(after, LocalDate::parse);
+        } catch (IllegalArgumentException ex) {
+            throw new GraphQLInvalidArgumentException(ex.getMessage());
+        }
+
+        return transactionService.getByDateRange(from, to, cursor, pageSize);
+    }
+
     @Transactional(rollbackFor = Exception.class)
     @MutationMapping
     public TransactionOperationResult createTransaction(@Argument TransactionInput input) {
@@ -70,23 +139,7 @@ public class TransactionGraphQLController {
             transactionService.get(input.parentUuid()).orElseThrow();
         }
 
-        var builder = new Transaction.Builder()
-                .amount(input.amount())
-                .creditAmount(input.creditAmount())
-                .transactionDate(input.transactionDate())
-                .type(input.type())
-                .comment(input.comment())
-                .checked(input.checked())
-                .accountDebitedUuid(debitedAccount.uuid())
-                .accountCreditedUuid(creditedAccount.uuid())
-                .accountDebitedType(debitedAccount.type())
-                .accountCreditedType(creditedAccount.type())
-                .accountDebitedCategoryUuid(debitedAccount.categoryUuid())
-                .accountCreditedCategoryUuid(creditedAccount.categoryUuid())
-                .invoiceNumber(input.invoiceNumber())
-                .parentUuid(input.parentUuid())
-                .detailed(input.detailed())
-                .statementDate(input.statementDate());
+        var builder = setupTransaction(new Transaction.Builder(), input, debitedAccount, creditedAccount);
 
         var contact = setupContact(null, builder, input);
 
@@ -95,15 +148,10 @@ public class TransactionGraphQLController {
                 contact
         ).orElseThrow(() -> new GraphQLCreateException("Transaction"));
 
-        var accountIds = new HashSet<UUID>();
-        accountIds.add(debitedAccount.uuid());
-        accountIds.add(creditedAccount.uuid());
-        var accounts = accountService.updateBalances(accountIds);
-
         return new TransactionOperationResult(
                 createResult.transaction(),
                 createResult.contact(),
-                accounts
+                createResult.accounts()
         );
     }
 
@@ -125,7 +173,123 @@ public class TransactionGraphQLController {
             contactService.get(input.contactUuid()).orElseThrow();
         }
 
-        builder.amount(input.amount())
+        setupTransaction(builder, input, debitedAccount, creditedAccount)
+                .contactUuid(input.contactUuid())
+                .modified(System.currentTimeMillis());
+
+        var contact = setupContact(uuid, builder, input);
+
+        var updateResult = transactionService.createOrUpdateTransaction(
+                builder.build(),
+                contact
+        ).orElseThrow(() -> new GraphQLUpdateException("Transaction", uuid));
+
+        return new TransactionOperationResult(
+                updateResult.transaction(),
+                updateResult.contact(),
+                updateResult.accounts()
+        );
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    @MutationMapping
+    public TransactionsOperationResult createTransactions(@Argument List<TransactionInput> inputs) {
+        var accounts = loadReferences(inputs, () -> new GraphQLCreateException("Transaction"));
+
+        var contacts = new HashMap<String, Contact>();
+        var transactions = new ArrayList<Transaction>(inputs.size());
+        for (var input : inputs) {
+            var builder = setupTransaction(new Transaction.Builder(), input,
+                    accounts.get(input.accountDebitedUuid()), accounts.get(input.accountCreditedUuid()));
+            builder.contactUuid(setupContact(input, contacts));
+            transactions.add(builder.build());
+        }
+
+        return transactionService.createOrUpdateTransactions(transactions, contacts.values())
+                .orElseThrow(() -> new GraphQLCreateException("Transaction"));
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    @MutationMapping
+    public TransactionsOperationResult updateTransactions(@Argument List<TransactionUpdateInput> inputs) {
+        var existing = transactionService.getByIds(inputs.stream().map(TransactionUpdateInput::uuid).toList())
+                .stream()
+                .collect(Collectors.toMap(Transaction::uuid, Function.identity()));
+        for (var input : inputs) {
+            if (!existing.containsKey(input.uuid())) {
+                throw new GraphQLNotFoundException("Transaction", input.uuid());
+            }
+        }
+
+        var accounts = loadReferences(
+                inputs.stream().map(TransactionUpdateInput::input).toList(),
+                () -> new GraphQLUpdateException("Transaction", inputs.getFirst().uuid())
+        );
+
+        var contacts = new HashMap<String, Contact>();
+        var transactions = new ArrayList<Transaction>(inputs.size());
+        var modified = System.currentTimeMillis();
+        for (var update : inputs) {
+            var input = update.input();
+            var builder = setupTransaction(new Transaction.Builder(existing.get(update.uuid())), input,
+                    accounts.get(input.accountDebitedUuid()), accounts.get(input.accountCreditedUuid()));
+            builder.contactUuid(setupContact(input, contacts))
+                    .modified(modified);
+            transactions.add(builder.build());
+        }
+
+        return transactionService.createOrUpdateTransactions(transactions, contacts.values())
+                .orElseThrow(() -> new GraphQLUpdateException("Transaction", inputs.getFirst().uuid()));
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    @MutationMapping
+    public TransactionsOperationResult deleteTransactions(@Argument List<UUID> uuids) {
+        return transactionService.deleteTransactions(uuids);
+    }
+
+    /**
+     * Validates accounts, contacts and parent transactions referenced by inputs in a constant number of queries.
+     *
+     * @param inputs            transaction inputs
+     * @param exceptionSupplier supplies exception thrown if any reference is not found
+     * @return referenced accounts
+     */
+    private Map<UUID, Account> loadReferences(
+            List<TransactionInput> inputs,
+            Supplier<? extends RuntimeException> exceptionSupplier
+    ) {
+        var accountUuids = new HashSet<UUID>();
+        var contactUuids = new HashSet<UUID>();
+        var parentUuids = new HashSet<UUID>();
+        for (var input : inputs) {
+            accountUuids.add(input.accountDebitedUuid());
+            accountUuids.add(input.accountCreditedUuid());
+            if (input.contactUuid() != null) {
+                contactUuids.add(input.contactUuid());
+            }
+            if (input.parentUuid() != null) {
+                parentUuids.add(input.parentUuid());
+            }
+        }
+
+        var accounts = accountService.getByIds(accountUuids);
+        if (accounts.size() != accountUuids.size()
+                || contactService.getByIds(contactUuids).size() != contactUuids.size()
+                || transactionService.getByIds(parentUuids).size() != parentUuids.size())
+        {
+            throw exceptionSupplier.get();
+        }
+        return accounts;
+    }
+
+    private static Transaction.Builder setupTransaction(
+            Transaction.Builder builder,
+            TransactionInput input,
+            Account debitedAccount,
+            Account creditedAccount
+    ) {
+        return builder.amount(input.amount())
                 .creditAmount(input.creditAmount())
                 .transactionDate(input.transactionDate())
                 .type(input.type())
@@ -137,32 +301,28 @@ public class TransactionGraphQLController {
                 .accountCreditedType(creditedAccount.type())
                 .accountDebitedCategoryUuid(debitedAccount.categoryUuid())
                 .accountCreditedCategoryUuid(creditedAccount.categoryUuid())
-                .contactUuid(input.contactUuid())
                 .invoiceNumber(input.invoiceNumber())
                 .parentUuid(input.parentUuid())
                 .detailed(input.detailed())
-                .statementDate(input.statementDate())
-                .modified(System.currentTimeMillis());
-
-        var contact = setupContact(uuid, builder, input);
-
-        var updateResult = transactionService.createOrUpdateTransaction(
-                builder.build(),
-                contact
-        ).orElseThrow(() -> new GraphQLUpdateException("Transaction", uuid));
-
-        var accountIds = new HashSet<UUID>();
-        accountIds.add(existing.accountDebitedUuid());
-        accountIds.add(existing.accountCreditedUuid());
-        accountIds.add(input.accountDebitedUuid());
-        accountIds.add(input.accountCreditedUuid());
-        var accounts = accountService.updateBalances(accountIds);
+                .statementDate(input.statementDate());
+    }
 
-        return new TransactionOperationResult(
-                updateResult.transaction(),
-                updateResult.contact(),
-                accounts
-        );
+    /**
+     * Returns contact UUID of the transaction in a bulk operation. Contacts created by name are shared between
+     * transactions of the same operation.
+     */
+    private static UUID setupContact(TransactionInput input, Map<String, Contact> newContacts) {
+        if (input.contactUuid() != null) {
+            return input.contactUuid();
+        } else if (input.contactName() != null) {
+            return newContacts.computeIfAbsent(input.contactName(), name -> new Contact.Builder()
+                    .name(name)
+                    .type(ContactType.PERSONAL)
+                    .build()
+            ).uuid();
+        } else {
+            return null;
+        }
     }
 
     private Contact setupContact(UUID uuid, Transaction.Builder builder, TransactionInput input) {
@@ -186,25 +346,55 @@ public class TransactionGraphQLController {
         }
     }
 
-    @SchemaMapping
-    public Account accountDebited(Transaction transaction) {
-        return accountService.get(transaction.accountDebitedUuid()).orElseThrow();
+    @BatchMapping
+    public Map<Transaction, Account> accountDebited(List<Transaction> transactions) {
+        var accounts = accountService.getByIds(
+                transactions.stream().map(Transaction::accountDebitedUuid).collect(Collectors.toSet())
+        );
+        return mapTransactions(transactions, t -> accounts.get(t.accountDebitedUuid()));
     }
 
-    @SchemaMapping
-    public Account accountCredited(Transaction transaction) {
-        return accountService.get(transaction.accountCreditedUuid()).orElseThrow();
+    @BatchMapping
+    public Map<Transaction, Account> accountCredited(List<Transaction> transactions) {
+        var accounts = accountService.getByIds(
+                transactions.stream().map(Transaction::accountCreditedUuid).collect(Collectors.toSet())
+        );
+        return mapTransactions(transactions, t -> accounts.get(t.accountCreditedUuid()));
     }
 
-    @SchemaMapping
-    public Contact contact(Transaction transaction) {
-        return transaction.contactUuid() == null ?
-                null : contactService.get(transaction.contactUuid()).orElseThrow();
+    @BatchMapping
+    public Map<Transaction, Contact> contact(List<Transaction> transactions) {
+        var contacts = contactService.getByIds(
+                transactions.stream()
+                        .map(Transaction::contactUuid)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())
+        );
+        return mapTransactions(transactions, t -> t.contactUuid() == null ? null : contacts.get(t.contactUuid()));
     }
 
-    @SchemaMapping
-    public Transaction parent(Transaction transaction) {
-        return transaction.parentUuid() == null ?
-                null : transactionRepository.get(transaction.parentUuid()).orElseThrow();
+    @BatchMapping
+    public Map<Transaction, Transaction> parent(List<Transaction> transactions) {
+        var parentUuids = transactions.stream()
+                .map(Transaction::parentUuid)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        var parents = transactionService.getByIds(parentUuids).stream()
+                .collect(Collectors.toMap(Transaction::uuid, Function.identity()));
+        return mapTransactions(transactions, t -> t.parentUuid() == null ? null : parents.get(t.parentUuid()));
+    }
+
+    private static <T> Map<Transaction, T> mapTransactions(
+            List<Transaction> transactions,
+            Function<Transaction, T> mapper
+    ) {
+        var result = new HashMap<Transaction, T>();
+        for (var t : transactions) {
+            var value = mapper.apply(t);
+            if (value != null) {
+                result.put(t, value);
+            }
+        }
+        return result;
     }
 }
@@ -23,6 +23,13 @@ public class CustomGraphQLExceptionResolver extends DataFetcherExceptionResolver
                     .path(env.getExecutionStepInfo().getPath())
                     .location(env.getField().getSourceLocation())
                     .build();
+        } else if (ex instanceof GraphQLInvalidArgumentException) {
+            return GraphqlErrorBuilder.newError()
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .message(ex.getMessage())
+                    .path(env.getExecutionStepInfo().getPath())
+                    .location(env.getField().getSourceLocation())
+                    .build();
         } else if (ex instanceof GraphQLBaseException) {
             return GraphqlErrorBuilder.newError()
                     .errorType(ErrorType.INTERNAL_ERROR)
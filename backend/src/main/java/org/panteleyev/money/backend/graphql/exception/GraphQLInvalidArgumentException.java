@@ -0,0 +1,13 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.graphql.exception;
+
+import graphql.ErrorType;
+
+public class GraphQLInvalidArgumentException extends GraphQLBaseException {
+    public GraphQLInvalidArgumentException(String message) {
+        super(message, ErrorType.ValidationError);
+    }
+}
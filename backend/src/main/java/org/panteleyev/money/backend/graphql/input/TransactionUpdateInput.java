@@ -0,0 +1,13 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.graphql.input;
+
+import java.util.UUID;
+
+public record TransactionUpdateInput(
+        UUID uuid,
+        TransactionInput input
+) {
+}
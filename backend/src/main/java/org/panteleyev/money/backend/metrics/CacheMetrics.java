@@ -0,0 +1,52 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.metrics;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Binds Caffeine caches to the meter registry. In addition to standard cache metrics (gets, puts, evictions, size)
+ * registers hit ratio and maximum size gauges.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+    private final List<Cache> caches;
+
+    public CacheMetrics(List<Cache> caches) {
+        this.caches = caches;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (var cache : caches) {
+            if (!(cache instanceof CaffeineCache caffeineCache)) {
+                continue;
+            }
+
+            var nativeCache = caffeineCache.getNativeCache();
+            CaffeineCacheMetrics.monitor(meterRegistry, nativeCache, cache.getName());
+
+            Gauge.builder("org.panteleyev.money.cache.hit.ratio", nativeCache, c -> c.stats().hitRate())
+                    .description("Cache hit ratio")
+                    .tags("cache", cache.getName())
+                    .register(meterRegistry);
+
+            Gauge.builder("org.panteleyev.money.cache.max.size", nativeCache,
+                            c -> c.policy().eviction().map(Policy.Eviction::getMaximum).orElse(-1L))
+                    .description("Maximum cache size")
+                    .tags("cache", cache.getName())
+                    .register(meterRegistry);
+        }
+    }
+}
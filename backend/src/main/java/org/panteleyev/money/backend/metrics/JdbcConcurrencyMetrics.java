@@ -0,0 +1,43 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.panteleyev.money.backend.config.ConcurrencyLimitedDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Registers gauges of the JDBC concurrency limiter if it is enabled.
+ */
+@Component
+public class JdbcConcurrencyMetrics implements MeterBinder {
+    private final DataSource dataSource;
+
+    public JdbcConcurrencyMetrics(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        if (!(dataSource instanceof ConcurrencyLimitedDataSource limiter)) {
+            return;
+        }
+
+        Gauge.builder("org.panteleyev.money.jdbc.permits.max", limiter, ConcurrencyLimitedDataSource::getMaxConcurrency)
+                .description("Maximum number of concurrent JDBC connections")
+                .register(meterRegistry);
+        Gauge.builder("org.panteleyev.money.jdbc.permits.available", limiter,
+                        ConcurrencyLimitedDataSource::getAvailablePermits)
+                .description("Number of available JDBC concurrency permits")
+                .register(meterRegistry);
+        Gauge.builder("org.panteleyev.money.jdbc.waiting", limiter, ConcurrencyLimitedDataSource::getQueueLength)
+                .description("Number of threads waiting for JDBC concurrency permit")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents account balance calculated from transactions.
+ *
+ * @param total   sum of all transactions
+ * @param waiting sum of unchecked transactions
+ */
+public record AccountBalance(
+        BigDecimal total,
+        BigDecimal waiting
+) {
+    public static final AccountBalance ZERO = new AccountBalance(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    public AccountBalance add(AccountBalance other) {
+        return new AccountBalance(total.add(other.total), waiting.add(other.waiting));
+    }
+
+    public AccountBalance negate() {
+        return new AccountBalance(total.negate(), waiting.negate());
+    }
+
+    public boolean isZero() {
+        return total.signum() == 0 && waiting.signum() == 0;
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+import java.util.UUID;
+
+/**
+ * Represents account whose stored balance differs from the balance calculated from transactions.
+ *
+ * @param accountUuid account UUID
+ * @param account     balance stored in the account
+ * @param projection  incrementally maintained balance
+ * @param calculated  balance calculated from transactions
+ */
+public record AccountBalanceMismatch(
+        UUID accountUuid,
+        AccountBalance account,
+        AccountBalance projection,
+        AccountBalance calculated
+) {
+}
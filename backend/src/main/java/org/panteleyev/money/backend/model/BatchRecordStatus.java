@@ -0,0 +1,33 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+import java.util.UUID;
+
+/**
+ * Result of a single record processing during batch update.
+ *
+ * @param uuid    record UUID
+ * @param status  processing status
+ * @param message error message, null if record was processed successfully
+ */
+public record BatchRecordStatus(
+        UUID uuid,
+        Status status,
+        String message
+) {
+    public enum Status {
+        OK,
+        FAILED
+    }
+
+    public static BatchRecordStatus ok(UUID uuid) {
+        return new BatchRecordStatus(uuid, Status.OK, null);
+    }
+
+    public static BatchRecordStatus failed(UUID uuid, String message) {
+        return new BatchRecordStatus(uuid, Status.FAILED, message);
+    }
+}
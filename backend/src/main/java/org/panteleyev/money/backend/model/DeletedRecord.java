@@ -0,0 +1,19 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+import java.util.UUID;
+
+/**
+ * Tombstone of the deleted record.
+ *
+ * @param uuid    record UUID
+ * @param deleted deletion time in milliseconds
+ */
+public record DeletedRecord(
+        UUID uuid,
+        long deleted
+) {
+}
@@ -0,0 +1,17 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+/**
+ * Relay connection page information.
+ *
+ * @param hasNextPage true if there are more records after this page
+ * @param endCursor   cursor of the last record of this page, null if page is empty
+ */
+public record PageInfo(
+        boolean hasNextPage,
+        String endCursor
+) {
+}
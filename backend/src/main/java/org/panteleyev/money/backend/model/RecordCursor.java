@@ -0,0 +1,57 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+import org.panteleyev.money.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Position of the record in the list ordered by key and UUID. Cursor is passed to the clients as an opaque string.
+ *
+ * @param key  ordering key, e.g. transaction date or change id
+ * @param uuid record UUID
+ * @param <K>  key type
+ */
+public record RecordCursor<K>(K key, UUID uuid) {
+    private static final String SEPARATOR = "/";
+
+    public static RecordCursor<LocalDate> of(Transaction transaction) {
+        return new RecordCursor<>(transaction.transactionDate(), transaction.uuid());
+    }
+
+    /**
+     * Decodes cursor string.
+     *
+     * @param cursor    cursor string
+     * @param keyParser key parser, throws {@link IllegalArgumentException} or {@link DateTimeException} if key is
+     *                  malformed
+     * @param <K>       key type
+     * @return cursor
+     * @throws IllegalArgumentException if cursor string is malformed
+     */
+    public static <K> RecordCursor<K> decode(String cursor, Function<String, K> keyParser) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = decoded.split(SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new RecordCursor<>(keyParser.apply(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+    }
+
+    public String encode() {
+        var value = key + SEPARATOR + uuid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+/**
+ * Relay connection edge.
+ *
+ * @param node   record
+ * @param cursor record cursor
+ * @param <T>    record type
+ */
+public record RecordEdge<T>(
+        T node,
+        String cursor
+) {
+}
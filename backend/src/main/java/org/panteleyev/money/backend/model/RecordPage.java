@@ -0,0 +1,47 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+import java.util.List;
+
+/**
+ * Represents a page of records.
+ *
+ * @param edges       records with their cursors
+ * @param hasNextPage true if there are more records after this page
+ * @param <T>         record type
+ */
+public record RecordPage<T>(
+        List<RecordEdge<T>> edges,
+        boolean hasNextPage
+) {
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Creates page from edges read with limit one greater than the page size.
+     *
+     * @param edges edges, extra edge means there is the next page
+     * @param limit page size
+     * @param <T>   record type
+     * @return page
+     */
+    public static <T> RecordPage<T> of(List<RecordEdge<T>> edges, int limit) {
+        return edges.size() > limit ?
+                new RecordPage<>(edges.subList(0, limit), true) : new RecordPage<>(edges, false);
+    }
+
+    public List<T> records() {
+        return edges.stream().map(RecordEdge::node).toList();
+    }
+
+    /**
+     * Returns cursor of the next page.
+     *
+     * @return cursor of the last record or null if this page is the last one
+     */
+    public String nextCursor() {
+        return hasNextPage ? edges.getLast().cursor() : null;
+    }
+}
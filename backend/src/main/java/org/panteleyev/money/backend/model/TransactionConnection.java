@@ -0,0 +1,21 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+import org.panteleyev.money.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Relay connection of transactions.
+ *
+ * @param edges    edges
+ * @param pageInfo page information
+ */
+public record TransactionConnection(
+        List<RecordEdge<Transaction>> edges,
+        PageInfo pageInfo
+) {
+}
@@ -4,11 +4,15 @@
  */
 package org.panteleyev.money.backend.model;
 
+import org.panteleyev.money.model.Account;
 import org.panteleyev.money.model.Contact;
 import org.panteleyev.money.model.Transaction;
 
+import java.util.Collection;
+
 public record TransactionUpdateResult(
         Transaction transaction,
-        Contact contact
+        Contact contact,
+        Collection<Account> accounts
 ) {
 }
@@ -0,0 +1,25 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.model;
+
+import org.panteleyev.money.model.Account;
+import org.panteleyev.money.model.Contact;
+import org.panteleyev.money.model.Transaction;
+
+import java.util.Collection;
+
+/**
+ * Represents result of the bulk operation on transactions.
+ *
+ * @param transactions created, updated or deleted transactions
+ * @param contacts     created contacts
+ * @param accounts     affected accounts
+ */
+public record TransactionsOperationResult(
+        Collection<Transaction> transactions,
+        Collection<Contact> contacts,
+        Collection<Account> accounts
+) {
+}
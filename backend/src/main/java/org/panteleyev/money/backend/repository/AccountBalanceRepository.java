@@ -0,0 +1,100 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.AccountBalance;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
+import static org.panteleyev.money.backend.repository.RepositoryUtil.getUuid;
+
+/**
+ * Account balances maintained incrementally on each transaction change.
+ */
+@Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "account_balance"})
+public class AccountBalanceRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final RowMapper<AccountBalance> rowMapper = (rs, _) -> new AccountBalance(
+            rs.getBigDecimal("total"),
+            rs.getBigDecimal("total_waiting")
+    );
+
+    public AccountBalanceRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<UUID, AccountBalance> getAll() {
+        var result = new HashMap<UUID, AccountBalance>();
+        jdbcTemplate.query("SELECT * FROM account_balance", rs -> {
+            result.put(getUuid(rs, "account_uuid"), rowMapper.mapRow(rs, 0));
+        });
+        return result;
+    }
+
+    public Optional<AccountBalance> get(UUID accountUuid) {
+        var result = jdbcTemplate.query("""
+                        SELECT * FROM account_balance WHERE account_uuid = :uuid
+                        """,
+                Map.of("uuid", accountUuid),
+                rowMapper);
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.getFirst());
+    }
+
+    /**
+     * Adds delta to the account balance. Row is locked until the end of the database transaction.
+     *
+     * @param accountUuid account UUID
+     * @param delta       balance change
+     * @return new balance
+     */
+    public AccountBalance add(UUID accountUuid, AccountBalance delta) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO account_balance (account_uuid, total, total_waiting)
+                        VALUES (:uuid, :total, :waiting)
+                        ON CONFLICT (account_uuid) DO UPDATE SET
+                            total = account_balance.total + EXCLUDED.total,
+                            total_waiting = account_balance.total_waiting + EXCLUDED.total_waiting
+                        RETURNING total, total_waiting
+                        """,
+                Map.of(
+                        "uuid", accountUuid,
+                        "total", delta.total(),
+                        "waiting", delta.waiting()
+                ),
+                rowMapper);
+    }
+
+    /**
+     * Recalculates all balances from transactions.
+     */
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM account_balance", Map.of());
+        jdbcTemplate.update("""
+                        INSERT INTO account_balance (account_uuid, total, total_waiting)
+                            SELECT account_uuid, SUM(amount), COALESCE(SUM(amount) FILTER (WHERE NOT checked), 0)
+                            FROM (
+                                SELECT acc_credited_uuid AS account_uuid, credit_amount AS amount, checked
+                                FROM transaction
+                                WHERE parent_uuid IS NULL
+                                UNION ALL
+                                SELECT acc_debited_uuid, -amount, checked
+                                FROM transaction
+                                WHERE parent_uuid IS NULL AND acc_debited_uuid <> acc_credited_uuid
+                            ) AS t
+                            GROUP BY account_uuid
+                        """,
+                Map.of());
+    }
+}
@@ -4,12 +4,17 @@
  */
 package org.panteleyev.money.backend.repository;
 
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.AccountBalance;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordPage;
 import org.panteleyev.money.model.Account;
 import org.panteleyev.money.model.CategoryType;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,13 +22,16 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
 import static java.util.Map.entry;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.convert;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getEnum;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getLocalDate;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getUuid;
+import static org.panteleyev.money.backend.repository.RepositoryUtil.queryPage;
 
 @Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "account"})
 public class AccountRepository implements MoneyRepository<Account> {
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
@@ -87,6 +95,23 @@ public class AccountRepository implements MoneyRepository<Account> {
         return jdbcTemplate.queryForStream("SELECT * FROM account", Map.of(), rowMapper);
     }
 
+    @Override
+    public List<Account> getChangedSince(long changedSince) {
+        return jdbcTemplate.query("SELECT * FROM account WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
+    @Override
+    public RecordPage<Account> getPage(long changedSince, RecordCursor<Long> after, int limit) {
+        return queryPage(jdbcTemplate, "account", rowMapper, changedSince, after, limit);
+    }
+
+    @Override
+    public Stream<Account> getStreamChangedSince(long changedSince) {
+        return jdbcTemplate.queryForStream("SELECT * FROM account WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
     @Override
     public Optional<Account> get(UUID uuid) {
         var result = jdbcTemplate.query("""
@@ -95,6 +120,33 @@ public class AccountRepository implements MoneyRepository<Account> {
         return result.isEmpty() ? Optional.empty() : Optional.of(result.getFirst());
     }
 
+    public List<Account> getByIds(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                        SELECT * FROM account WHERE uuid = ANY(:uuids)
+                        """,
+                Map.of("uuids", uuids.toArray(new UUID[0])),
+                rowMapper);
+    }
+
+    public int updateBalance(UUID uuid, AccountBalance balance, long modified) {
+        return jdbcTemplate.update("""
+                        UPDATE account SET
+                            total = :total,
+                            total_waiting = :waiting,
+                            modified = :modified
+                        WHERE uuid = :uuid
+                        """,
+                Map.of(
+                        "uuid", uuid,
+                        "total", balance.total(),
+                        "waiting", balance.waiting(),
+                        "modified", modified
+                ));
+    }
+
     @Override
     public int insertOrUpdate(Account account) {
         return jdbcTemplate.update("""
@@ -4,6 +4,9 @@
  */
 package org.panteleyev.money.backend.repository;
 
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordPage;
 import org.panteleyev.money.model.Category;
 import org.panteleyev.money.model.CategoryType;
 import org.springframework.jdbc.core.RowMapper;
@@ -17,11 +20,14 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
 import static java.util.Map.entry;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getEnum;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getUuid;
+import static org.panteleyev.money.backend.repository.RepositoryUtil.queryPage;
 
 @Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "category"})
 public class CategoryRepository implements MoneyRepository<Category> {
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
@@ -62,6 +68,23 @@ public class CategoryRepository implements MoneyRepository<Category> {
         return jdbcTemplate.queryForStream("SELECT * FROM category", Map.of(), rowMapper);
     }
 
+    @Override
+    public List<Category> getChangedSince(long changedSince) {
+        return jdbcTemplate.query("SELECT * FROM category WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
+    @Override
+    public RecordPage<Category> getPage(long changedSince, RecordCursor<Long> after, int limit) {
+        return queryPage(jdbcTemplate, "category", rowMapper, changedSince, after, limit);
+    }
+
+    @Override
+    public Stream<Category> getStreamChangedSince(long changedSince) {
+        return jdbcTemplate.queryForStream("SELECT * FROM category WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
     @Override
     public Optional<Category> get(UUID uuid) {
         var result = jdbcTemplate.query("""
@@ -0,0 +1,39 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
+
+/**
+ * Change ids used by clients for incremental synchronization. Each inserted or updated row gets id of the database
+ * transaction that wrote it.
+ */
+@Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "change"})
+public class ChangeRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ChangeRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns id of the oldest running database transaction. All rows with lesser change id are already committed,
+     * so changes read after this call contain all of them. Rows written by the running transactions will have change
+     * id greater or equal to the watermark.
+     *
+     * @return watermark for the next request
+     */
+    public long getWatermark() {
+        return jdbcTemplate.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::TEXT::BIGINT",
+                Map.of(), Long.class);
+    }
+}
@@ -4,12 +4,18 @@
  */
 package org.panteleyev.money.backend.repository;
 
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordPage;
 import org.panteleyev.money.model.Contact;
 import org.panteleyev.money.model.ContactType;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,12 +23,38 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
 import static java.util.Map.entry;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getEnum;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getUuid;
+import static org.panteleyev.money.backend.repository.RepositoryUtil.queryPage;
 
 @Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "contact"})
 public class ContactRepository implements MoneyRepository<Contact> {
+    private static final String INSERT_OR_UPDATE_SQL = """
+            INSERT INTO contact (uuid, name, type, phone, mobile, email, web, comment, street, city,
+                country, zip, icon_uuid, created, modified
+            ) VALUES (
+                :uuid, :name, :type, :phone, :mobile, :email, :web, :comment, :street, :city,
+                :country, :zip, :iconUuid, :created, :modified
+            )
+            ON CONFLICT (uuid) DO UPDATE SET
+                name = :name,
+                type = :type,
+                phone = :phone,
+                mobile = :mobile,
+                email = :email,
+                web = :web,
+                comment = :comment,
+                street = :street,
+                city = :city,
+                country = :country,
+                zip = :zip,
+                icon_uuid = :iconUuid,
+                modified = :modified
+            """;
+
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
     private final RowMapper<Contact> rowMapper = (rs, _) -> new Contact(
@@ -78,6 +110,23 @@ public class ContactRepository implements MoneyRepository<Contact> {
         return jdbcTemplate.queryForStream("SELECT * FROM contact", Map.of(), rowMapper);
     }
 
+    @Override
+    public List<Contact> getChangedSince(long changedSince) {
+        return jdbcTemplate.query("SELECT * FROM contact WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
+    @Override
+    public RecordPage<Contact> getPage(long changedSince, RecordCursor<Long> after, int limit) {
+        return queryPage(jdbcTemplate, "contact", rowMapper, changedSince, after, limit);
+    }
+
+    @Override
+    public Stream<Contact> getStreamChangedSince(long changedSince) {
+        return jdbcTemplate.queryForStream("SELECT * FROM contact WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
     @Override
     public Optional<Contact> get(UUID uuid) {
         var queryResult = jdbcTemplate.query(
@@ -90,31 +139,32 @@ public class ContactRepository implements MoneyRepository<Contact> {
 
     }
 
+    public List<Contact> getByIds(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                        SELECT * FROM contact WHERE uuid = ANY(:uuids)
+                        """,
+                Map.of("uuids", uuids.toArray(new UUID[0])),
+                rowMapper);
+    }
+
     @Override
     public int insertOrUpdate(Contact contact) {
-        return jdbcTemplate.update("""
-                        INSERT INTO contact (uuid, name, type, phone, mobile, email, web, comment, street, city,
-                            country, zip, icon_uuid, created, modified
-                        ) VALUES (
-                            :uuid, :name, :type, :phone, :mobile, :email, :web, :comment, :street, :city,
-                            :country, :zip, :iconUuid, :created, :modified
-                        )
-                        ON CONFLICT (uuid) DO UPDATE SET
-                            name = :name,
-                            type = :type,
-                            phone = :phone,
-                            mobile = :mobile,
-                            email = :email,
-                            web = :web,
-                            comment = :comment,
-                            street = :street,
-                            city = :city,
-                            country = :country,
-                            zip = :zip,
-                            icon_uuid = :iconUuid,
-                            modified = :modified
-                        """,
-                toMap(contact)
-        );
+        return jdbcTemplate.update(INSERT_OR_UPDATE_SQL, toMap(contact));
+    }
+
+    /**
+     * Inserts or updates contacts using JDBC batch.
+     *
+     * @param contacts contacts
+     * @return update counts
+     */
+    public int[] insertOrUpdate(Collection<Contact> contacts) {
+        return jdbcTemplate.batchUpdate(INSERT_OR_UPDATE_SQL,
+                contacts.stream()
+                        .map(c -> new MapSqlParameterSource(toMap(c)))
+                        .toArray(SqlParameterSource[]::new));
     }
 }
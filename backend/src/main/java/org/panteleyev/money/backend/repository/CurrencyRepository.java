@@ -4,6 +4,9 @@
  */
 package org.panteleyev.money.backend.repository;
 
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordPage;
 import org.panteleyev.money.model.Currency;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -15,9 +18,12 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getUuid;
+import static org.panteleyev.money.backend.repository.RepositoryUtil.queryPage;
 
 @Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "currency"})
 public class CurrencyRepository implements MoneyRepository<Currency> {
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
@@ -50,6 +56,23 @@ public class CurrencyRepository implements MoneyRepository<Currency> {
         return jdbcTemplate.queryForStream("SELECT * FROM currency", Map.of(), rowMapper);
     }
 
+    @Override
+    public List<Currency> getChangedSince(long changedSince) {
+        return jdbcTemplate.query("SELECT * FROM currency WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
+    @Override
+    public RecordPage<Currency> getPage(long changedSince, RecordCursor<Long> after, int limit) {
+        return queryPage(jdbcTemplate, "currency", rowMapper, changedSince, after, limit);
+    }
+
+    @Override
+    public Stream<Currency> getStreamChangedSince(long changedSince) {
+        return jdbcTemplate.queryForStream("SELECT * FROM currency WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
     @Override
     public Optional<Currency> get(UUID uuid) {
         var queryResult = jdbcTemplate.query(
@@ -0,0 +1,92 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.DeletedRecord;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
+import static org.panteleyev.money.backend.repository.RepositoryUtil.getUuid;
+
+/**
+ * Tombstones of deleted records used by clients for incremental synchronization.
+ */
+@Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "deleted_record"})
+public class DeletedRecordRepository {
+    public static final String TRANSACTION = "transaction";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final RowMapper<DeletedRecord> rowMapper = (rs, _) -> new DeletedRecord(
+            getUuid(rs, "uuid"),
+            rs.getLong("deleted")
+    );
+
+    public DeletedRecordRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns tombstones of the specified type changed since the specified change id.
+     *
+     * @param recordType   record type
+     * @param changedSince change id
+     * @return deleted records
+     */
+    public List<DeletedRecord> getDeletedSince(String recordType, long changedSince) {
+        return jdbcTemplate.query("""
+                        SELECT * FROM deleted_record WHERE record_type = :recordType AND change_id >= :changedSince
+                        """,
+                Map.of(
+                        "recordType", recordType,
+                        "changedSince", changedSince
+                ),
+                rowMapper);
+    }
+
+    /**
+     * Stores tombstones of deleted records.
+     *
+     * @param recordType record type
+     * @param uuids      UUIDs of deleted records
+     * @param deleted    deletion time in milliseconds
+     * @return update counts
+     */
+    public int[] insert(String recordType, Collection<UUID> uuids, long deleted) {
+        return jdbcTemplate.batchUpdate("""
+                        INSERT INTO deleted_record (uuid, record_type, deleted)
+                        VALUES (:uuid, :recordType, :deleted)
+                        ON CONFLICT (uuid) DO UPDATE SET deleted = :deleted
+                        """,
+                uuids.stream()
+                        .map(uuid -> new MapSqlParameterSource()
+                                .addValue("uuid", uuid)
+                                .addValue("recordType", recordType)
+                                .addValue("deleted", deleted))
+                        .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Removes tombstones of the records that were inserted again.
+     *
+     * @param uuids record UUIDs
+     * @return number of removed tombstones
+     */
+    public int delete(Collection<UUID> uuids) {
+        return jdbcTemplate.update("DELETE FROM deleted_record WHERE uuid = ANY(:uuids)",
+                Map.of("uuids", uuids.toArray(new UUID[0])));
+    }
+}
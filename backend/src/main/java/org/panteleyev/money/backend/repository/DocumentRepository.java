@@ -4,6 +4,9 @@
  */
 package org.panteleyev.money.backend.repository;
 
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordPage;
 import org.panteleyev.money.model.DocumentType;
 import org.panteleyev.money.model.MoneyDocument;
 import org.springframework.jdbc.core.RowMapper;
@@ -16,12 +19,15 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.convert;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getEnum;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getLocalDate;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getUuid;
+import static org.panteleyev.money.backend.repository.RepositoryUtil.queryPage;
 
 @Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "document"})
 public class DocumentRepository implements MoneyRepository<MoneyDocument> {
     private static final RowMapper<MoneyDocument> ROW_MAPPER = (rs, _) -> new MoneyDocument(
             getUuid(rs, "uuid"),
@@ -53,6 +59,23 @@ public class DocumentRepository implements MoneyRepository<MoneyDocument> {
         return jdbcTemplate.queryForStream("SELECT * FROM document", Map.of(), ROW_MAPPER);
     }
 
+    @Override
+    public List<MoneyDocument> getChangedSince(long changedSince) {
+        return jdbcTemplate.query("SELECT * FROM document WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), ROW_MAPPER);
+    }
+
+    @Override
+    public RecordPage<MoneyDocument> getPage(long changedSince, RecordCursor<Long> after, int limit) {
+        return queryPage(jdbcTemplate, "document", ROW_MAPPER, changedSince, after, limit);
+    }
+
+    @Override
+    public Stream<MoneyDocument> getStreamChangedSince(long changedSince) {
+        return jdbcTemplate.queryForStream("SELECT * FROM document WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), ROW_MAPPER);
+    }
+
     @Override
     public Optional<MoneyDocument> get(UUID uuid) {
         var queryResult = jdbcTemplate.query(
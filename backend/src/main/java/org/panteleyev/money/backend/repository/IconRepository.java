@@ -4,6 +4,9 @@
  */
 package org.panteleyev.money.backend.repository;
 
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordPage;
 import org.panteleyev.money.model.Icon;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -15,9 +18,12 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getUuid;
+import static org.panteleyev.money.backend.repository.RepositoryUtil.queryPage;
 
 @Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "icon"})
 public class IconRepository implements MoneyRepository<Icon> {
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
@@ -43,6 +49,23 @@ public class IconRepository implements MoneyRepository<Icon> {
         return jdbcTemplate.queryForStream("SELECT * FROM icon", Map.of(), rowMapper);
     }
 
+    @Override
+    public List<Icon> getChangedSince(long changedSince) {
+        return jdbcTemplate.query("SELECT * FROM icon WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
+    @Override
+    public RecordPage<Icon> getPage(long changedSince, RecordCursor<Long> after, int limit) {
+        return queryPage(jdbcTemplate, "icon", rowMapper, changedSince, after, limit);
+    }
+
+    @Override
+    public Stream<Icon> getStreamChangedSince(long changedSince) {
+        return jdbcTemplate.queryForStream("SELECT * FROM icon WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
     @Override
     public int insertOrUpdate(Icon icon) {
         return jdbcTemplate.update("""
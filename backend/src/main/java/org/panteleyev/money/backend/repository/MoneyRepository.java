@@ -4,6 +4,8 @@
  */
 package org.panteleyev.money.backend.repository;
 
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordPage;
 import org.panteleyev.money.model.MoneyRecord;
 
 import java.util.List;
@@ -12,9 +14,35 @@ import java.util.UUID;
 import java.util.stream.Stream;
 
 public interface MoneyRepository<T extends MoneyRecord> {
-    List<? extends MoneyRecord> getAll();
+    List<T> getAll();
 
-    Stream<? extends MoneyRecord> getStream();
+    Stream<T> getStream();
+
+    /**
+     * Returns records changed since the specified change id.
+     *
+     * @param changedSince change id, usually watermark returned by {@link ChangeRepository#getWatermark()}
+     * @return list of records
+     */
+    List<T> getChangedSince(long changedSince);
+
+    /**
+     * Returns stream of records changed since the specified change id.
+     *
+     * @param changedSince change id
+     * @return stream of records
+     */
+    Stream<T> getStreamChangedSince(long changedSince);
+
+    /**
+     * Returns page of records changed since the specified change id ordered by change id and UUID.
+     *
+     * @param changedSince change id
+     * @param after        position of the last record of the previous page, null for the first page
+     * @param limit        page size
+     * @return page of records
+     */
+    RecordPage<T> getPage(long changedSince, RecordCursor<Long> after, int limit);
 
     Optional<T> get(UUID uuid);
 
@@ -4,10 +4,18 @@
  */
 package org.panteleyev.money.backend.repository;
 
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordEdge;
+import org.panteleyev.money.backend.model.RecordPage;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 final class RepositoryUtil {
@@ -26,6 +34,45 @@ final class RepositoryUtil {
         return date == null ? null : date.toLocalDate();
     }
 
+    /**
+     * Returns page of records changed since the specified change id ordered by change id and UUID. Records are
+     * selected with keyset query, so the cost of the page does not depend on its position.
+     *
+     * @param jdbcTemplate JDBC template
+     * @param table        table name
+     * @param rowMapper    row mapper
+     * @param changedSince change id
+     * @param after        position of the last record of the previous page, null for the first page
+     * @param limit        page size
+     * @return page of records
+     */
+    static <T> RecordPage<T> queryPage(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            String table,
+            RowMapper<T> rowMapper,
+            long changedSince,
+            RecordCursor<Long> after,
+            int limit
+    ) {
+        var sql = new StringBuilder("SELECT * FROM ").append(table).append(" WHERE change_id >= :changedSince ");
+        var params = new HashMap<String, Object>(Map.of(
+                "changedSince", changedSince,
+                "limit", limit + 1
+        ));
+        if (after != null) {
+            sql.append("AND (change_id, uuid) > (:afterChangeId, :afterUuid) ");
+            params.put("afterChangeId", after.key());
+            params.put("afterUuid", after.uuid());
+        }
+        sql.append("ORDER BY change_id, uuid LIMIT :limit");
+
+        var edges = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new RecordEdge<>(
+                rowMapper.mapRow(rs, rowNum),
+                new RecordCursor<>(rs.getLong("change_id"), getUuid(rs, "uuid")).encode()
+        ));
+        return RecordPage.of(edges, limit);
+    }
+
     static int convert(boolean value) {
         return value ? 1 : 0;
     }
@@ -4,14 +4,21 @@
  */
 package org.panteleyev.money.backend.repository;
 
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.AccountBalance;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordPage;
 import org.panteleyev.money.model.CategoryType;
 import org.panteleyev.money.model.Transaction;
 import org.panteleyev.money.model.TransactionType;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -20,12 +27,49 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
-import static java.util.Map.entry;
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getEnum;
 import static org.panteleyev.money.backend.repository.RepositoryUtil.getUuid;
+import static org.panteleyev.money.backend.repository.RepositoryUtil.queryPage;
 
 @Repository
+@Timed(value = REPOSITORY_TIMER, extraTags = {"entity", "transaction"})
 public class TransactionRepository implements MoneyRepository<Transaction> {
+    private static final String INSERT_OR_UPDATE_SQL = """
+            INSERT INTO transaction (
+                uuid, amount, credit_amount, transaction_date, type, comment, checked,
+                acc_debited_uuid, acc_credited_uuid, acc_debited_type, acc_credited_type,
+                acc_debited_category_uuid, acc_credited_category_uuid, contact_uuid,
+                invoice_number, parent_uuid, detailed, statement_date, card_uuid, created, modified
+            ) VALUES (
+                :uuid, :amount, :creditAmount, :transactionDate, :type, :comment, :checked,
+                :accDebitedUuid, :accCreditedUuid, :accDebitedType, :accCreditedType,
+                :accDebitedCategoryUuid, :accCreditedCategoryUuid, :contactUuid,
+                :invoiceNumber, :parentUuid, :detailed, :statementDate, :cardUuid, :created, :modified
+            )
+            ON CONFLICT (uuid) DO UPDATE SET
+                uuid = :uuid,
+                amount = :amount,
+                credit_amount = :creditAmount,
+                transaction_date = :transactionDate,
+                type = :type,
+                comment = :comment,
+                checked = :checked,
+                acc_debited_uuid = :accDebitedUuid,
+                acc_credited_uuid = :accCreditedUuid,
+                acc_debited_type = :accDebitedType,
+                acc_credited_type = :accCreditedType,
+                acc_debited_category_uuid = :accDebitedCategoryUuid,
+                acc_credited_category_uuid = :accCreditedCategoryUuid,
+                contact_uuid = :contactUuid,
+                invoice_number = :invoiceNumber,
+                parent_uuid = :parentUuid,
+                detailed = :detailed,
+                statement_date = :statementDate,
+                card_uuid = :cardUuid,
+                modified = :modified
+            """;
+
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
     private final RowMapper<Transaction> rowMapper = (rs, _) -> new Transaction(
@@ -52,31 +96,29 @@ public class TransactionRepository implements MoneyRepository<Transaction> {
             rs.getLong("modified")
     );
 
-    private static Map<String, Object> toMap(Transaction transaction) {
-        var map = new HashMap<String, Object>(Map.ofEntries(
-                entry("uuid", transaction.uuid()),
-                entry("amount", transaction.amount()),
-                entry("creditAmount", transaction.creditAmount()),
-                entry("transactionDate", Date.valueOf(transaction.transactionDate())),
-                entry("type", transaction.type().name()),
-                entry("comment", transaction.comment()),
-                entry("checked", transaction.checked()),
-                entry("accDebitedUuid", transaction.accountDebitedUuid()),
-                entry("accCreditedUuid", transaction.accountCreditedUuid()),
-                entry("accDebitedType", transaction.accountDebitedType().name()),
-                entry("accCreditedType", transaction.accountCreditedType().name()),
-                entry("accDebitedCategoryUuid", transaction.accountDebitedCategoryUuid()),
-                entry("accCreditedCategoryUuid", transaction.accountCreditedCategoryUuid()),
-                entry("invoiceNumber", transaction.invoiceNumber()),
-                entry("detailed", transaction.detailed()),
-                entry("created", transaction.created()),
-                entry("modified", transaction.modified())
-        ));
-        map.put("contactUuid", transaction.contactUuid());
-        map.put("parentUuid", transaction.parentUuid());
-        map.put("statementDate", Date.valueOf(transaction.statementDate()));
-        map.put("cardUuid", transaction.cardUuid());
-        return map;
+    private static SqlParameterSource toParameterSource(Transaction transaction) {
+        return new MapSqlParameterSource()
+                .addValue("uuid", transaction.uuid())
+                .addValue("amount", transaction.amount())
+                .addValue("creditAmount", transaction.creditAmount())
+                .addValue("transactionDate", Date.valueOf(transaction.transactionDate()))
+                .addValue("type", transaction.type().name())
+                .addValue("comment", transaction.comment())
+                .addValue("checked", transaction.checked())
+                .addValue("accDebitedUuid", transaction.accountDebitedUuid())
+                .addValue("accCreditedUuid", transaction.accountCreditedUuid())
+                .addValue("accDebitedType", transaction.accountDebitedType().name())
+                .addValue("accCreditedType", transaction.accountCreditedType().name())
+                .addValue("accDebitedCategoryUuid", transaction.accountDebitedCategoryUuid())
+                .addValue("accCreditedCategoryUuid", transaction.accountCreditedCategoryUuid())
+                .addValue("contactUuid", transaction.contactUuid())
+                .addValue("invoiceNumber", transaction.invoiceNumber())
+                .addValue("parentUuid", transaction.parentUuid())
+                .addValue("detailed", transaction.detailed())
+                .addValue("statementDate", Date.valueOf(transaction.statementDate()))
+                .addValue("cardUuid", transaction.cardUuid())
+                .addValue("created", transaction.created())
+                .addValue("modified", transaction.modified());
     }
 
     public TransactionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
@@ -89,15 +131,54 @@ public class TransactionRepository implements MoneyRepository<Transaction> {
     }
 
     public List<Transaction> getByYearAndMonth(int year, int month) {
-        return jdbcTemplate.query("""
-                        SELECT * FROM transaction
-                        WHERE date_month = :month AND date_year = :year
-                        """,
-                Map.of(
-                        "month", month,
-                        "year", year
-                ),
-                rowMapper);
+        var from = LocalDate.of(year, month, 1);
+        return getByDateRange(from, from.plusMonths(1), null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns transactions with dates in the half-open range [from, to) ordered by date and UUID.
+     *
+     * @param from  start date, inclusive
+     * @param to    end date, exclusive
+     * @param after position of the last transaction of the previous page, null for the first page
+     * @param limit maximum number of transactions
+     * @return list of transactions
+     */
+    public List<Transaction> getByDateRange(
+            LocalDate from,
+            LocalDate to,
+            RecordCursor<LocalDate> after,
+            int limit
+    ) {
+        var params = new HashMap<String, Object>(Map.of(
+                "from", Date.valueOf(from),
+                "to", Date.valueOf(to),
+                "limit", limit
+        ));
+
+        if (after != null) {
+            params.put("afterDate", Date.valueOf(after.key()));
+            params.put("afterUuid", after.uuid());
+        }
+
+        return jdbcTemplate.query(getByDateRangeQuery(after != null), params, rowMapper);
+    }
+
+    /**
+     * Returns query of {@link #getByDateRange(LocalDate, LocalDate, RecordCursor, int)}.
+     *
+     * @param withCursor true if query continues after cursor
+     * @return query
+     */
+    public static String getByDateRangeQuery(boolean withCursor) {
+        var sql = new StringBuilder("""
+                SELECT * FROM transaction
+                WHERE transaction_date >= :from AND transaction_date < :to
+                """);
+        if (withCursor) {
+            sql.append("AND (transaction_date, uuid) > (:afterDate, :afterUuid)\n");
+        }
+        return sql.append("ORDER BY transaction_date, uuid LIMIT :limit").toString();
     }
 
     public Collection<Transaction> getByAccountId(UUID uuid) {
@@ -111,11 +192,65 @@ public class TransactionRepository implements MoneyRepository<Transaction> {
                 rowMapper);
     }
 
+    /**
+     * Calculates balances of the accounts in a single query. Detail transactions are ignored, credited account
+     * receives credit amount, debited account loses amount.
+     *
+     * @param accountUuids account UUIDs
+     * @return balances by account UUID, accounts without transactions are absent
+     */
+    public Map<UUID, AccountBalance> getBalances(Collection<UUID> accountUuids) {
+        if (accountUuids.isEmpty()) {
+            return Map.of();
+        }
+
+        var result = new HashMap<UUID, AccountBalance>();
+        jdbcTemplate.query("""
+                        SELECT account_uuid,
+                            SUM(amount) AS total,
+                            COALESCE(SUM(amount) FILTER (WHERE NOT checked), 0) AS waiting
+                        FROM (
+                            SELECT acc_credited_uuid AS account_uuid, credit_amount AS amount, checked
+                            FROM transaction
+                            WHERE parent_uuid IS NULL AND acc_credited_uuid = ANY(:uuids)
+                            UNION ALL
+                            SELECT acc_debited_uuid, -amount, checked
+                            FROM transaction
+                            WHERE parent_uuid IS NULL AND acc_debited_uuid = ANY(:uuids)
+                                AND acc_debited_uuid <> acc_credited_uuid
+                        ) AS t
+                        GROUP BY account_uuid
+                        """,
+                Map.of("uuids", accountUuids.toArray(new UUID[0])),
+                rs -> {
+                    result.put(getUuid(rs, "account_uuid"),
+                            new AccountBalance(rs.getBigDecimal("total"), rs.getBigDecimal("waiting")));
+                });
+        return result;
+    }
+
     @Override
     public Stream<Transaction> getStream() {
         return jdbcTemplate.queryForStream("SELECT * FROM transaction", Map.of(), rowMapper);
     }
 
+    @Override
+    public List<Transaction> getChangedSince(long changedSince) {
+        return jdbcTemplate.query("SELECT * FROM transaction WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
+    @Override
+    public RecordPage<Transaction> getPage(long changedSince, RecordCursor<Long> after, int limit) {
+        return queryPage(jdbcTemplate, "transaction", rowMapper, changedSince, after, limit);
+    }
+
+    @Override
+    public Stream<Transaction> getStreamChangedSince(long changedSince) {
+        return jdbcTemplate.queryForStream("SELECT * FROM transaction WHERE change_id >= :changedSince",
+                Map.of("changedSince", changedSince), rowMapper);
+    }
+
     @Override
     public Optional<Transaction> get(UUID uuid) {
         var result = jdbcTemplate.query("""
@@ -126,43 +261,97 @@ public class TransactionRepository implements MoneyRepository<Transaction> {
         return result.isEmpty() ? Optional.empty() : Optional.of(result.getFirst());
     }
 
+    public List<Transaction> getByIds(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                        SELECT * FROM transaction WHERE uuid = ANY(:uuids)
+                        """,
+                Map.of("uuids", uuids.toArray(new UUID[0])),
+                rowMapper);
+    }
+
+    /**
+     * Returns transaction and locks it until the end of the database transaction.
+     *
+     * @param uuid transaction UUID
+     * @return transaction
+     */
+    public Optional<Transaction> getForUpdate(UUID uuid) {
+        var result = jdbcTemplate.query("""
+                        SELECT * FROM transaction WHERE uuid = :uuid FOR UPDATE
+                        """,
+                Map.of("uuid", uuid),
+                rowMapper);
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.getFirst());
+    }
+
     @Override
     public int insertOrUpdate(Transaction transaction) {
-        return jdbcTemplate.update("""
-                        INSERT INTO transaction (
-                            uuid, amount, credit_amount, transaction_date, type, comment, checked,
-                            acc_debited_uuid, acc_credited_uuid, acc_debited_type, acc_credited_type,
-                            acc_debited_category_uuid, acc_credited_category_uuid, contact_uuid,
-                            invoice_number, parent_uuid, detailed, statement_date, card_uuid, created, modified
-                        ) VALUES (
-                            :uuid, :amount, :creditAmount, :transactionDate, :type, :comment, :checked,
-                            :accDebitedUuid, :accCreditedUuid, :accDebitedType, :accCreditedType,
-                            :accDebitedCategoryUuid, :accCreditedCategoryUuid, :contactUuid,
-                            :invoiceNumber, :parentUuid, :detailed, :statementDate, :cardUuid, :created, :modified
-                        )
-                        ON CONFLICT (uuid) DO UPDATE SET
-                            uuid = :uuid,
-                            amount = :amount,
-                            credit_amount = :creditAmount,
-                            transaction_date = :transactionDate,
-                            type = :type,
-                            comment = :comment,
-                            checked = :checked,
-                            acc_debited_uuid = :accDebitedUuid,
-                            acc_credited_uuid = :accCreditedUuid,
-                            acc_debited_type = :accDebitedType,
-                            acc_credited_type = :accCreditedType,
-                            acc_debited_category_uuid = :accDebitedCategoryUuid,
-                            acc_credited_category_uuid = :accCreditedCategoryUuid,
-                            contact_uuid = :contactUuid,
-                            invoice_number = :invoiceNumber,
-                            parent_uuid = :parentUuid,
-                            detailed = :detailed,
-                            statement_date = :statementDate,
-                            card_uuid = :cardUuid,
-                            modified = :modified
+        return jdbcTemplate.update(INSERT_OR_UPDATE_SQL, toParameterSource(transaction));
+    }
+
+    /**
+     * Inserts or updates transactions using JDBC batch.
+     *
+     * @param transactions transactions
+     * @return update counts
+     */
+    public int[] insertOrUpdate(Collection<Transaction> transactions) {
+        return jdbcTemplate.batchUpdate(INSERT_OR_UPDATE_SQL,
+                transactions.stream()
+                        .map(TransactionRepository::toParameterSource)
+                        .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Returns transactions and locks them until the end of the database transaction.
+     *
+     * @param uuids transaction UUIDs
+     * @return transactions
+     */
+    public List<Transaction> getForUpdate(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                        SELECT * FROM transaction WHERE uuid = ANY(:uuids) FOR UPDATE
                         """,
-                toMap(transaction)
-        );
+                Map.of("uuids", uuids.toArray(new UUID[0])),
+                rowMapper);
+    }
+
+    /**
+     * Returns transactions and their details and locks them until the end of the database transaction.
+     *
+     * @param uuids transaction UUIDs
+     * @return transactions and details
+     */
+    public List<Transaction> getWithDetailsForUpdate(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                        SELECT * FROM transaction WHERE uuid = ANY(:uuids) OR parent_uuid = ANY(:uuids)
+                        FOR UPDATE
+                        """,
+                Map.of("uuids", uuids.toArray(new UUID[0])),
+                rowMapper);
+    }
+
+    /**
+     * Deletes transactions and their details.
+     *
+     * @param uuids transaction UUIDs
+     * @return number of deleted rows
+     */
+    public int delete(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return 0;
+        }
+        var params = Map.of("uuids", uuids.toArray(new UUID[0]));
+        return jdbcTemplate.update("DELETE FROM transaction WHERE parent_uuid = ANY(:uuids)", params)
+                + jdbcTemplate.update("DELETE FROM transaction WHERE uuid = ANY(:uuids)", params);
     }
 }
@@ -4,34 +4,46 @@
  */
 package org.panteleyev.money.backend.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.panteleyev.money.backend.model.AccountBalance;
+import org.panteleyev.money.backend.model.AccountBalanceMismatch;
+import org.panteleyev.money.backend.repository.AccountBalanceRepository;
 import org.panteleyev.money.backend.repository.AccountRepository;
 import org.panteleyev.money.backend.repository.TransactionRepository;
 import org.panteleyev.money.model.Account;
 import org.panteleyev.money.model.Transaction;
 import org.springframework.cache.Cache;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
-import java.util.function.Predicate;
+
+import static org.panteleyev.money.backend.config.MetricsConfiguration.BALANCE_TIMER;
 
 @Service
 public class AccountService {
     private final AccountRepository accountRepository;
+    private final AccountBalanceRepository accountBalanceRepository;
     private final TransactionRepository transactionRepository;
     private final Cache cache;
 
     public AccountService(
             AccountRepository accountRepository,
+            AccountBalanceRepository accountBalanceRepository,
             TransactionRepository transactionRepository,
             Cache accountCache
     ) {
         this.accountRepository = accountRepository;
+        this.accountBalanceRepository = accountBalanceRepository;
         this.transactionRepository = transactionRepository;
         this.cache = accountCache;
     }
@@ -40,39 +52,155 @@ public class AccountService {
         return accountRepository.getAll();
     }
 
+    public List<Account> getChangedSince(long changedSince) {
+        return accountRepository.getChangedSince(changedSince);
+    }
+
     public Optional<Account> get(UUID uuid) {
         return ServiceUtil.get(accountRepository, cache, uuid);
     }
 
+    public Map<UUID, Account> getByIds(Collection<UUID> uuids) {
+        return ServiceUtil.getByIds(cache, uuids, accountRepository::getByIds);
+    }
+
     public Optional<Account> put(Account account) {
         return ServiceUtil.put(accountRepository, cache, account);
     }
 
-    public Collection<Account> updateBalances(Collection<UUID> accountIds) {
-        var result = new ArrayList<Account>(accountIds.size());
-        for (UUID uuid : accountIds) {
-            accountRepository.get(uuid).ifPresent(account -> {
-                var total = calculateBalance(account, false, _ -> true);
-                var waiting = calculateBalance(account, false, t -> !t.checked());
-                put(account.updateBalance(total, waiting)).ifPresent(result::add);
-            });
+    /**
+     * Applies difference between old and new versions of the transaction to the maintained balances of affected
+     * accounts. Must be called in the same database transaction that modifies the transaction.
+     *
+     * @param oldTransaction transaction before the change, null if transaction is created
+     * @param newTransaction transaction after the change, null if transaction is deleted
+     * @return affected accounts
+     */
+    @Timed(BALANCE_TIMER)
+    public Collection<Account> applyTransactionChange(Transaction oldTransaction, Transaction newTransaction) {
+        return applyTransactionChanges(
+                oldTransaction == null ? List.of() : List.of(oldTransaction),
+                newTransaction == null ? List.of() : List.of(newTransaction)
+        );
+    }
+
+    /**
+     * Applies difference between old and new versions of multiple transactions. Each affected account is updated
+     * once. Affected accounts are read from the database and evicted from the cache after commit, so the cache never
+     * holds balances that may be rolled back.
+     *
+     * @param oldTransactions transactions before the change, created transactions are absent
+     * @param newTransactions transactions after the change, deleted transactions are absent
+     * @return affected accounts
+     */
+    @Timed(BALANCE_TIMER)
+    public Collection<Account> applyTransactionChanges(
+            Collection<Transaction> oldTransactions,
+            Collection<Transaction> newTransactions
+    ) {
+        // Sorted to lock balance rows in the same order in concurrent transactions
+        var deltas = new TreeMap<UUID, AccountBalance>();
+        for (var t : oldTransactions) {
+            addDelta(deltas, t, true);
+        }
+        for (var t : newTransactions) {
+            addDelta(deltas, t, false);
+        }
+
+        var modified = System.currentTimeMillis();
+        for (var entry : deltas.entrySet()) {
+            var uuid = entry.getKey();
+            var balance = entry.getValue().isZero() ?
+                    accountBalanceRepository.get(uuid).orElse(AccountBalance.ZERO) :
+                    accountBalanceRepository.add(uuid, entry.getValue());
+            accountRepository.updateBalance(uuid, balance, modified);
+        }
+        evictAfterCommit(deltas.keySet());
+
+        return accountRepository.getByIds(deltas.keySet());
+    }
+
+    private static void addDelta(Map<UUID, AccountBalance> deltas, Transaction t, boolean revert) {
+        deltas.putIfAbsent(t.accountDebitedUuid(), AccountBalance.ZERO);
+        deltas.putIfAbsent(t.accountCreditedUuid(), AccountBalance.ZERO);
+        if (t.parentUuid() != null) {
+            return;
         }
 
+        var credit = delta(t, t.creditAmount());
+        deltas.merge(t.accountCreditedUuid(), revert ? credit.negate() : credit, AccountBalance::add);
+        if (!Objects.equals(t.accountDebitedUuid(), t.accountCreditedUuid())) {
+            var debit = delta(t, Transaction.getNegatedAmount(t));
+            deltas.merge(t.accountDebitedUuid(), revert ? debit.negate() : debit, AccountBalance::add);
+        }
+    }
+
+    private static AccountBalance delta(Transaction t, BigDecimal amount) {
+        return new AccountBalance(amount, t.checked() ? BigDecimal.ZERO : amount);
+    }
+
+    /**
+     * Compares balances stored in accounts and maintained balances with balances calculated from transactions.
+     *
+     * @return accounts with inconsistent balances
+     */
+    @Timed(BALANCE_TIMER)
+    public List<AccountBalanceMismatch> verifyBalances() {
+        var projections = accountBalanceRepository.getAll();
+        var accounts = accountRepository.getAll();
+        var calculated = transactionRepository.getBalances(accounts.stream().map(Account::uuid).toList());
+
+        var result = new ArrayList<AccountBalanceMismatch>();
+        for (var account : accounts) {
+            var stored = new AccountBalance(account.total(), account.totalWaiting());
+            var projection = projections.getOrDefault(account.uuid(), AccountBalance.ZERO);
+            var expected = calculated.getOrDefault(account.uuid(), AccountBalance.ZERO);
+            if (!equalBalances(stored, expected) || !equalBalances(projection, expected)) {
+                result.add(new AccountBalanceMismatch(account.uuid(), stored, projection, expected));
+            }
+        }
         return result;
     }
 
-    public BigDecimal calculateBalance(Account account, boolean total, Predicate<Transaction> filter) {
-        var initialBalance = total ?
-                account.openingBalance().add(account.accountLimit()) :
-                BigDecimal.ZERO;
-
-        return transactionRepository.getByAccountId(account.uuid()).stream()
-                .filter(filter)
-                .filter(t -> t.parentUuid() == null)
-                .map(t -> Objects.equals(account.uuid(), t.accountCreditedUuid()) ?
-                        t.creditAmount() :
-                        Transaction.getNegatedAmount(t))
-                .reduce(initialBalance, BigDecimal::add);
+    /**
+     * Recalculates maintained balances from transactions and fixes inconsistent accounts.
+     *
+     * @return fixed accounts
+     */
+    @Timed(BALANCE_TIMER)
+    public List<AccountBalanceMismatch> rebuildBalances() {
+        accountBalanceRepository.rebuild();
+
+        var mismatches = verifyBalances();
+        var modified = System.currentTimeMillis();
+        for (var mismatch : mismatches) {
+            accountRepository.updateBalance(mismatch.accountUuid(), mismatch.calculated(), modified);
+        }
+        evictAfterCommit(mismatches.stream().map(AccountBalanceMismatch::accountUuid).toList());
+        return mismatches;
+    }
+
+    /**
+     * Evicts accounts from the cache when the current database transaction is committed. Without transaction accounts
+     * are evicted immediately.
+     */
+    private void evictAfterCommit(Collection<UUID> uuids) {
+        var evicted = List.copyOf(uuids);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evicted.forEach(cache::evict);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evicted.forEach(cache::evict);
+            }
+        });
+    }
+
+    private static boolean equalBalances(AccountBalance x, AccountBalance y) {
+        return x.total().compareTo(y.total()) == 0 && x.waiting().compareTo(y.waiting()) == 0;
     }
 
     public int getCount(boolean inactive) {
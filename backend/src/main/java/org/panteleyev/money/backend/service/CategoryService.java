@@ -27,6 +27,10 @@ public class CategoryService {
         return repository.getAll();
     }
 
+    public List<Category> getChangedSince(long changedSince) {
+        return repository.getChangedSince(changedSince);
+    }
+
     public Optional<Category> get(UUID uuid) {
         return ServiceUtil.get(repository, cache, uuid);
     }
@@ -9,7 +9,9 @@ import org.panteleyev.money.model.Contact;
 import org.springframework.cache.Cache;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,10 +29,18 @@ public class ContactService {
         return repository.getAll();
     }
 
+    public List<Contact> getChangedSince(long changedSince) {
+        return repository.getChangedSince(changedSince);
+    }
+
     public Optional<Contact> get(UUID uuid) {
         return ServiceUtil.get(repository, cache, uuid);
     }
 
+    public Map<UUID, Contact> getByIds(Collection<UUID> uuids) {
+        return ServiceUtil.getByIds(cache, uuids, repository::getByIds);
+    }
+
     public Optional<Contact> put(Contact contact) {
         return ServiceUtil.put(repository, cache, contact);
     }
@@ -27,6 +27,10 @@ public class CurrencyService {
         return repository.getAll();
     }
 
+    public List<Currency> getChangedSince(long changedSince) {
+        return repository.getChangedSince(changedSince);
+    }
+
     public Optional<Currency> get(UUID uuid) {
         return ServiceUtil.get(repository, cache, uuid);
     }
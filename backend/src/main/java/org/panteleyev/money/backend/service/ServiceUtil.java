@@ -7,9 +7,17 @@ package org.panteleyev.money.backend.service;
 import org.panteleyev.money.backend.repository.MoneyRepository;
 import org.panteleyev.money.model.MoneyRecord;
 import org.springframework.cache.Cache;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 final class ServiceUtil {
     private ServiceUtil() {
@@ -19,6 +27,39 @@ final class ServiceUtil {
         return Optional.ofNullable(cache.get(uuid, () -> repository.get(uuid).orElse(null)));
     }
 
+    /**
+     * Returns records by UUID. Records missing in the cache are loaded by a single call of the loader and cached.
+     *
+     * @param cache  cache
+     * @param uuids  record UUIDs
+     * @param loader loads records by UUID
+     * @param <T>    record type
+     * @return records by UUID, records that were not found are absent
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends MoneyRecord> Map<UUID, T> getByIds(
+            Cache cache,
+            Collection<UUID> uuids,
+            Function<Collection<UUID>, List<T>> loader
+    ) {
+        var result = new HashMap<UUID, T>();
+        var missing = new HashSet<UUID>();
+        for (var uuid : uuids) {
+            var cached = cache.get(uuid);
+            if (cached != null && cached.get() != null) {
+                result.put(uuid, (T) cached.get());
+            } else {
+                missing.add(uuid);
+            }
+        }
+
+        for (var record : loader.apply(missing)) {
+            cache.put(record.uuid(), record);
+            result.put(record.uuid(), record);
+        }
+        return result;
+    }
+
     static <T extends MoneyRecord> Optional<T> put(MoneyRepository<T> repository, Cache cache, T record) {
         int rows = repository.insertOrUpdate(record);
         if (rows != 1) {
@@ -29,6 +70,33 @@ final class ServiceUtil {
         }
     }
 
+    /**
+     * Checks that each statement of the batch updated exactly one row.
+     *
+     * @param counts batch update counts
+     * @return true if all statements succeeded
+     */
+    static boolean isBatchUpdated(int[] counts) {
+        for (var count : counts) {
+            if (count != 1 && count != Statement.SUCCESS_NO_INFO) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks the current database transaction for rollback, so records written before the failure are not committed
+     * when the service method returns normally.
+     *
+     * @param <T> result type
+     * @return empty result
+     */
+    static <T> Optional<T> rollback() {
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        return Optional.empty();
+    }
+
     static <T extends MoneyRecord> Optional<T> put(MoneyRepository<T> repository, T record) {
         int rows = repository.insertOrUpdate(record);
         if (rows != 1) {
@@ -4,60 +4,196 @@
  */
 package org.panteleyev.money.backend.service;
 
+import org.panteleyev.money.backend.model.DeletedRecord;
+import org.panteleyev.money.backend.model.PageInfo;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.model.RecordEdge;
+import org.panteleyev.money.backend.model.RecordPage;
+import org.panteleyev.money.backend.model.TransactionConnection;
 import org.panteleyev.money.backend.model.TransactionUpdateResult;
+import org.panteleyev.money.backend.model.TransactionsOperationResult;
 import org.panteleyev.money.backend.repository.ContactRepository;
+import org.panteleyev.money.backend.repository.DeletedRecordRepository;
 import org.panteleyev.money.backend.repository.TransactionRepository;
 import org.panteleyev.money.model.Contact;
 import org.panteleyev.money.model.Transaction;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final ContactRepository contactRepository;
+    private final DeletedRecordRepository deletedRecordRepository;
+    private final AccountService accountService;
 
     public TransactionService(
             TransactionRepository transactionRepository,
-            ContactRepository contactRepository
+            ContactRepository contactRepository,
+            DeletedRecordRepository deletedRecordRepository,
+            AccountService accountService
     ) {
         this.transactionRepository = transactionRepository;
         this.contactRepository = contactRepository;
+        this.deletedRecordRepository = deletedRecordRepository;
+        this.accountService = accountService;
+    }
+
+    public List<Transaction> getChangedSince(long changedSince) {
+        return transactionRepository.getChangedSince(changedSince);
+    }
+
+    /**
+     * Returns Relay connection of transactions changed since the specified change id.
+     *
+     * @param changedSince change id
+     * @param after        cursor of the last transaction of the previous page, null for the first page
+     * @param first        page size
+     * @return connection
+     */
+    public TransactionConnection getConnection(long changedSince, RecordCursor<Long> after, int first) {
+        return toConnection(transactionRepository.getPage(changedSince, after, first));
+    }
+
+    public List<DeletedRecord> getDeletedSince(long changedSince) {
+        return deletedRecordRepository.getDeletedSince(DeletedRecordRepository.TRANSACTION, changedSince);
     }
 
     public Optional<Transaction> get(UUID uuid) {
         return transactionRepository.get(uuid);
     }
 
+    public List<Transaction> getByIds(Collection<UUID> uuids) {
+        return transactionRepository.getByIds(uuids);
+    }
+
+    @Transactional(rollbackFor = Exception.class)
     public Optional<Transaction> put(Transaction transaction) {
-        return ServiceUtil.put(transactionRepository, transaction);
+        var existing = transactionRepository.getForUpdate(transaction.uuid());
+        var result = ServiceUtil.put(transactionRepository, transaction);
+        result.ifPresent(t -> {
+            deletedRecordRepository.delete(List.of(t.uuid()));
+            accountService.applyTransactionChange(existing.orElse(null), t);
+        });
+        return result;
     }
 
     public List<Transaction> getByYearAndMonth(int year, int month) {
         return transactionRepository.getByYearAndMonth(year, month);
     }
 
+    /**
+     * Returns Relay connection of transactions with dates in the specified range.
+     *
+     * @param from  start date, inclusive
+     * @param to    end date, exclusive
+     * @param after cursor of the last transaction of the previous page, null for the first page
+     * @param first page size
+     * @return connection
+     */
+    public TransactionConnection getByDateRange(
+            LocalDate from,
+            LocalDate to,
+            RecordCursor<LocalDate> after,
+            int first
+    ) {
+        var transactions = transactionRepository.getByDateRange(from, to, after, first + 1);
+        return toConnection(RecordPage.of(
+                transactions.stream()
+                        .map(t -> new RecordEdge<>(t, RecordCursor.of(t).encode()))
+                        .toList(),
+                first
+        ));
+    }
+
+    private static TransactionConnection toConnection(RecordPage<Transaction> page) {
+        var endCursor = page.edges().isEmpty() ? null : page.edges().getLast().cursor();
+        return new TransactionConnection(page.edges(), new PageInfo(page.hasNextPage(), endCursor));
+    }
+
+    @Transactional(rollbackFor = Exception.class)
     public Optional<TransactionUpdateResult> createOrUpdateTransaction(
             Transaction transaction,
             Contact contact
     ) {
+        var existing = transactionRepository.getForUpdate(transaction.uuid());
+
         if (contact != null) {
             if (contactRepository.insertOrUpdate(contact) != 1) {
-                return Optional.empty();
+                return ServiceUtil.rollback();
             }
         }
 
         if (transactionRepository.insertOrUpdate(transaction) != 1) {
-            return Optional.empty();
+            return ServiceUtil.rollback();
         }
+        deletedRecordRepository.delete(List.of(transaction.uuid()));
+
+        var accounts = accountService.applyTransactionChange(existing.orElse(null), transaction);
 
         return Optional.of(
                 new TransactionUpdateResult(
-                        transaction, contact
+                        transaction, contact, accounts
                 )
         );
     }
+
+    /**
+     * Creates or updates transactions and contacts in batches. Balance of each affected account is updated once.
+     * If the same transaction appears more than once, the last version is written.
+     *
+     * @param transactions transactions
+     * @param contacts     new contacts referenced by transactions
+     * @return operation result or empty if any record was not written, nothing is written in this case
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Optional<TransactionsOperationResult> createOrUpdateTransactions(
+            Collection<Transaction> transactions,
+            Collection<Contact> contacts
+    ) {
+        var unique = transactions.stream()
+                .collect(Collectors.toMap(Transaction::uuid, Function.identity(), (_, last) -> last,
+                        LinkedHashMap::new))
+                .values();
+
+        var existing = transactionRepository.getForUpdate(
+                unique.stream().map(Transaction::uuid).toList()
+        );
+
+        if (!contacts.isEmpty() && !ServiceUtil.isBatchUpdated(contactRepository.insertOrUpdate(contacts))) {
+            return ServiceUtil.rollback();
+        }
+        if (!ServiceUtil.isBatchUpdated(transactionRepository.insertOrUpdate(unique))) {
+            return ServiceUtil.rollback();
+        }
+        deletedRecordRepository.delete(unique.stream().map(Transaction::uuid).toList());
+
+        var accounts = accountService.applyTransactionChanges(existing, unique);
+        return Optional.of(new TransactionsOperationResult(unique, contacts, accounts));
+    }
+
+    /**
+     * Deletes transactions together with their details.
+     *
+     * @param uuids transaction UUIDs
+     * @return deleted transactions and affected accounts
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public TransactionsOperationResult deleteTransactions(Collection<UUID> uuids) {
+        var deleted = transactionRepository.getWithDetailsForUpdate(uuids);
+        transactionRepository.delete(uuids);
+        deletedRecordRepository.insert(DeletedRecordRepository.TRANSACTION,
+                deleted.stream().map(Transaction::uuid).toList(), System.currentTimeMillis());
+        var accounts = accountService.applyTransactionChanges(deleted, List.of());
+        return new TransactionsOperationResult(deleted, List.of(), accounts);
+    }
 }
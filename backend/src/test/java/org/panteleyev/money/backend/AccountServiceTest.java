@@ -0,0 +1,86 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.panteleyev.money.backend.repository.AccountRepository;
+import org.panteleyev.money.backend.repository.CategoryRepository;
+import org.panteleyev.money.backend.repository.CurrencyRepository;
+import org.panteleyev.money.backend.repository.TransactionRepository;
+import org.panteleyev.money.backend.service.AccountService;
+import org.panteleyev.money.model.Account;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.panteleyev.money.backend.BaseTestUtils.newAccount;
+import static org.panteleyev.money.backend.BaseTestUtils.newCategory;
+import static org.panteleyev.money.backend.BaseTestUtils.newCurrency;
+import static org.panteleyev.money.backend.BaseTestUtils.newTransaction;
+
+public class AccountServiceTest extends BaseSpringBootTest {
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private CurrencyRepository currencyRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID categoryUuid;
+    private Account account;
+
+    @BeforeEach
+    public void init() {
+        var now = System.currentTimeMillis();
+        categoryUuid = UUID.randomUUID();
+        var currencyUuid = UUID.randomUUID();
+        categoryRepository.insertOrUpdate(newCategory(categoryUuid, null, now, now));
+        currencyRepository.insertOrUpdate(newCurrency(currencyUuid, now, now));
+        account = newAccount(UUID.randomUUID(), categoryUuid, currencyUuid, null, now, now);
+        accountRepository.insertOrUpdate(account);
+        // Account is cached
+        account = accountService.get(account.uuid()).orElseThrow();
+    }
+
+    @Test
+    public void testRolledBackBalanceIsNotCached() {
+        transactionTemplate.executeWithoutResult(status -> {
+            applyNewTransaction();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(account, accountRepository.get(account.uuid()).orElseThrow());
+        assertEquals(account, accountService.get(account.uuid()).orElseThrow());
+    }
+
+    @Test
+    public void testCommittedBalanceIsNotStale() {
+        transactionTemplate.executeWithoutResult(_ -> applyNewTransaction());
+
+        var stored = accountRepository.get(account.uuid()).orElseThrow();
+        assertNotEquals(account, stored);
+        assertEquals(stored, accountService.get(account.uuid()).orElseThrow());
+    }
+
+    private void applyNewTransaction() {
+        var now = System.currentTimeMillis();
+        var transaction = newTransaction(UUID.randomUUID(), account.uuid(), categoryUuid, null, now, now);
+        transactionRepository.insertOrUpdate(transaction);
+        var accounts = accountService.applyTransactionChange(null, transaction);
+        // Result reflects uncommitted balance, cache still holds committed one
+        assertEquals(accountRepository.get(account.uuid()).orElseThrow(), accounts.iterator().next());
+        assertEquals(account, accountService.get(account.uuid()).orElseThrow());
+    }
+}
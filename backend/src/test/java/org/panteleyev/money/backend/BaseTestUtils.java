@@ -30,6 +30,17 @@ final class BaseTestUtils {
 
     public static final Random RANDOM = new Random(System.currentTimeMillis());
 
+    /**
+     * Returns rate of operations.
+     *
+     * @param count   number of operations
+     * @param elapsed elapsed time in nanoseconds
+     * @return operations per second
+     */
+    static double perSecond(int count, long elapsed) {
+        return count * 1_000_000_000.0 / elapsed;
+    }
+
     static String randomString() {
         return UUID.randomUUID().toString();
     }
@@ -0,0 +1,52 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class CacheMetricsTest extends BaseSpringBootTest {
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private Cache accountCache;
+
+    private final UUID key = UUID.randomUUID();
+
+    // Cache is shared with other tests, value of the wrong type must not stay there
+    @AfterEach
+    public void cleanup() {
+        accountCache.evict(key);
+    }
+
+    @Test
+    public void testCacheMetrics() {
+        accountCache.put(key, "value");
+        accountCache.get(key);
+        accountCache.get(UUID.randomUUID());
+
+        for (var name : new String[]{
+                "cache_icons", "cache_categories", "cache_accounts",
+                "cache_currencies", "cache_contacts", "cache_documents"
+        }) {
+            assertNotNull(meterRegistry.find("cache.gets").tag("cache", name).functionCounter(), name);
+            assertNotNull(meterRegistry.find("org.panteleyev.money.cache.hit.ratio").tag("cache", name).gauge(), name);
+        }
+
+        var maxSize = meterRegistry.find("org.panteleyev.money.cache.max.size")
+                .tag("cache", "cache_accounts")
+                .gauge();
+        assertNotNull(maxSize);
+        assertEquals(500, maxSize.value());
+    }
+}
@@ -4,10 +4,19 @@
  */
 package org.panteleyev.money.backend;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.panteleyev.money.backend.service.TransactionService;
+import org.panteleyev.money.client.DeletedRecord;
+import org.panteleyev.money.client.FileReplicaStore;
 import org.panteleyev.money.client.MoneyClient;
+import org.panteleyev.money.client.MoneyReplica;
 import org.panteleyev.money.model.Account;
 import org.panteleyev.money.model.Category;
 import org.panteleyev.money.model.Contact;
@@ -16,10 +25,14 @@ import org.panteleyev.money.model.Icon;
 import org.panteleyev.money.model.MoneyDocument;
 import org.panteleyev.money.model.MoneyRecord;
 import org.panteleyev.money.model.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.server.LocalServerPort;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -48,6 +61,8 @@ public class ClientTest extends BaseSpringBootTest {
 
     @LocalServerPort
     private int port;
+    @Autowired
+    private TransactionService transactionService;
 
     private final AtomicReference<MoneyClient> client = new AtomicReference<>(null);
 
@@ -87,6 +102,11 @@ public class ClientTest extends BaseSpringBootTest {
                 .build());
     }
 
+    @AfterEach
+    public void cleanup() {
+        client.get().close();
+    }
+
     @Test
     @Order(1)
     public void testIcons() {
@@ -174,6 +194,129 @@ public class ClientTest extends BaseSpringBootTest {
         updateAndCheck(putDocument, getDocument, update);
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "false, false, 0",
+            "false, true, 4",
+            "true, false, 1",
+            "true, true, 0",
+            "true, true, 4"
+    })
+    @Order(8)
+    public void testStreams(boolean binaryStreaming, boolean compression, int queueDepth) {
+        try (var streamingClient = new MoneyClient.Builder()
+                .withServerUrl("http://localhost:" + port)
+                .withBinaryStreaming(binaryStreaming)
+                .withCompression(compression)
+                .withStreamingChuckSize(2)
+                .withStreamingQueueDepth(queueDepth)
+                .build()
+        ) {
+            var icons = new ArrayList<Icon>();
+            streamingClient.consumeIconStream(icons::addAll);
+            assertEquals(Set.copyOf(streamingClient.getIcons()), Set.copyOf(icons));
+
+            // Chunks are kept as is to make sure they are not reused
+            var chunks = new ArrayList<List<Transaction>>();
+            streamingClient.consumeTransactionStream(chunks::add);
+            assertTrue(chunks.stream().allMatch(chunk -> !chunk.isEmpty() && chunk.size() <= 2));
+            var transactions = chunks.stream().flatMap(List::stream).toList();
+            assertEquals(Set.copyOf(streamingClient.getTransactions()), Set.copyOf(transactions));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @Order(9)
+    public void testAsync(boolean http2) {
+        try (var asyncClient = new MoneyClient.Builder()
+                .withServerUrl("http://localhost:" + port)
+                .withHttp2(http2)
+                .build()
+        ) {
+            var data = asyncClient.loadAll().join();
+            assertEquals(Set.copyOf(asyncClient.getIcons()), Set.copyOf(data.icons()));
+            assertEquals(Set.copyOf(asyncClient.getCurrencies()), Set.copyOf(data.currencies()));
+            assertEquals(Set.copyOf(asyncClient.getCategories()), Set.copyOf(data.categories()));
+            assertEquals(Set.copyOf(asyncClient.getContacts()), Set.copyOf(data.contacts()));
+            assertEquals(Set.copyOf(asyncClient.getAccounts()), Set.copyOf(data.accounts()));
+            assertEquals(Set.copyOf(asyncClient.getTransactions()), Set.copyOf(data.transactions()));
+            assertEquals(Set.copyOf(asyncClient.getDocuments()), Set.copyOf(data.documents()));
+
+            var watermark = asyncClient.getChangesAsync(Icon.class, 0).join().watermark();
+            var created = System.currentTimeMillis();
+            var icon = newIcon(UUID.randomUUID(), ICON_DOLLAR, created, created);
+            assertEquals(icon, asyncClient.putAsync(icon).join());
+            assertEquals(Optional.of(icon), asyncClient.getAsync(Icon.class, icon.uuid()).join());
+            assertEquals(List.of(icon), asyncClient.getChangesAsync(Icon.class, watermark).join().records());
+
+            var transactions = new ArrayList<Transaction>();
+            asyncClient.consumeStreamAsync(Transaction.class, transactions::addAll).join();
+            assertEquals(Set.copyOf(data.transactions()), Set.copyOf(transactions));
+        }
+    }
+
+    @Test
+    @Order(10)
+    public void testChanges() {
+        var all = client.get().getChanges(Icon.class, 0);
+        assertEquals(Set.copyOf(client.get().getIcons()), Set.copyOf(all.records()));
+
+        // Modification time set by client does not affect synchronization
+        var created = System.currentTimeMillis() - 86_400_000;
+        var icon = client.get().putIcon(newIcon(UUID.randomUUID(), ICON_DOLLAR, created, created));
+        var changed = client.get().getChanges(Icon.class, all.watermark());
+        assertEquals(List.of(icon), changed.records());
+        assertTrue(client.get().getChanges(Icon.class, changed.watermark()).records().isEmpty());
+
+        var streamed = new ArrayList<Icon>();
+        var streamWatermark = client.get().consumeStreamAsync(Icon.class, all.watermark(), streamed::addAll).join();
+        assertEquals(List.of(icon), streamed);
+        assertTrue(streamWatermark >= changed.watermark());
+
+        var transaction = client.get().putTransaction(
+                newTransaction(UUID.randomUUID(), ACCOUNT_UUID, CATEGORY_UUID, null, created, created));
+        var deletedWatermark = client.get().getDeletedTransactions(0).watermark();
+        transactionService.deleteTransactions(List.of(transaction.uuid()));
+        var deleted = client.get().getDeletedTransactions(deletedWatermark);
+        assertEquals(List.of(transaction.uuid()), deleted.records().stream().map(DeletedRecord::uuid).toList());
+        assertTrue(client.get().getDeletedTransactions(deleted.watermark()).records().isEmpty());
+    }
+
+    @Test
+    @Order(11)
+    public void testReplica(@TempDir Path tempDir) {
+        var store = new FileReplicaStore(tempDir.resolve("replica.json.gz"));
+        var replica = new MoneyReplica(client.get(), store);
+        replica.sync();
+        assertEquals(Set.copyOf(client.get().getCurrencies()), Set.copyOf(replica.getAll(Currency.class)));
+        assertEquals(Set.copyOf(client.get().getTransactions()), Set.copyOf(replica.getAll(Transaction.class)));
+
+        var created = System.currentTimeMillis();
+        var icon = newIcon(UUID.randomUUID(), ICON_EURO, created, created);
+        client.get().putIcon(icon);
+        // Modification time ahead of the server clock does not prevent removal
+        var transaction = replica.put(newTransaction(UUID.randomUUID(), ACCOUNT_UUID, CATEGORY_UUID, null,
+                created, created + 86_400_000));
+        assertEquals(Optional.of(transaction), replica.get(Transaction.class, transaction.uuid()));
+
+        replica.sync();
+        assertEquals(Optional.of(icon), replica.get(Icon.class, icon.uuid()));
+
+        transactionService.deleteTransactions(List.of(transaction.uuid()));
+        replica.sync();
+        assertTrue(replica.get(Transaction.class, transaction.uuid()).isEmpty());
+
+        // Record created again is not removed by its old tombstone
+        var recreated = client.get().putTransaction(transaction);
+        replica.sync();
+        assertEquals(Optional.of(recreated), replica.get(Transaction.class, transaction.uuid()));
+
+        var restored = new MoneyReplica(client.get(), store);
+        assertEquals(Set.copyOf(replica.getAll(Icon.class)), Set.copyOf(restored.getAll(Icon.class)));
+        assertEquals(Set.copyOf(replica.getAll(Transaction.class)), Set.copyOf(restored.getAll(Transaction.class)));
+    }
+
     private static <T extends MoneyRecord> void insertAndCheck(
             Function<T, T> putMethod,
             Function<UUID, Optional<T>> getMethod,
@@ -10,6 +10,9 @@ import io.restassured.http.Method;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
+import org.panteleyev.money.backend.model.BatchRecordStatus;
+import org.panteleyev.money.backend.model.DeletedRecord;
+import org.panteleyev.money.backend.service.TransactionService;
 import org.panteleyev.money.model.Account;
 import org.panteleyev.money.model.Category;
 import org.panteleyev.money.model.Contact;
@@ -18,9 +21,11 @@ import org.panteleyev.money.model.Icon;
 import org.panteleyev.money.model.MoneyDocument;
 import org.panteleyev.money.model.MoneyRecord;
 import org.panteleyev.money.model.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -57,6 +62,8 @@ public class ControllerTest extends BaseSpringBootTest {
 
     @LocalServerPort
     private int port;
+    @Autowired
+    private TransactionService transactionService;
 
     @BeforeEach
     public void init() {
@@ -151,6 +158,110 @@ public class ControllerTest extends BaseSpringBootTest {
         updateAndCheck(update, MoneyDocument.class, DOCUMENT_ROOT);
     }
 
+    @Test
+    @Order(8)
+    public void testTransactionBatch() {
+        var created = System.currentTimeMillis();
+        var transactions = List.of(
+                newTransaction(UUID.randomUUID(), ACCOUNT_UUID, CATEGORY_UUID, CONTACT_UUID, created, created),
+                newTransaction(UUID.randomUUID(), ACCOUNT_UUID, CATEGORY_UUID, null, created, created),
+                // Unknown account
+                newTransaction(UUID.randomUUID(), UUID.randomUUID(), CATEGORY_UUID, null, created, created),
+                newTransaction(UUID.randomUUID(), ACCOUNT_UUID, CATEGORY_UUID, CONTACT_UUID, created, created),
+                newTransaction(UUID.randomUUID(), ACCOUNT_UUID, CATEGORY_UUID, null, created, created)
+        );
+
+        var statuses = given()
+                .contentType(ContentType.JSON)
+                .body(transactions)
+                .when()
+                .request(Method.PUT, CONTEXT_ROOT + TRANSACTION_ROOT)
+                .then()
+                .assertThat()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(BatchRecordStatus[].class);
+
+        assertEquals(transactions.size(), statuses.length);
+        for (int i = 0; i < transactions.size(); i++) {
+            var transaction = transactions.get(i);
+            assertEquals(transaction.uuid(), statuses[i].uuid());
+            if (i == 2) {
+                assertEquals(BatchRecordStatus.Status.FAILED, statuses[i].status());
+            } else {
+                assertEquals(BatchRecordStatus.Status.OK, statuses[i].status());
+                assertEquals(transaction, get(transaction.uuid(), Transaction.class, TRANSACTION_ROOT));
+            }
+        }
+    }
+
+    @Test
+    @Order(9)
+    public void testTransactionPages() {
+        var all = get(Transaction[].class, TRANSACTION_ROOT);
+
+        var pages = new ArrayList<Transaction>();
+        String cursor = null;
+        do {
+            var request = given()
+                    .contentType(ContentType.JSON)
+                    .queryParam("limit", 2);
+            if (cursor != null) {
+                request.queryParam("after", cursor);
+            }
+            var response = request
+                    .when()
+                    .request(Method.GET, CONTEXT_ROOT + TRANSACTION_ROOT)
+                    .then()
+                    .assertThat()
+                    .statusCode(HttpStatus.OK.value())
+                    .extract();
+            var page = response.as(Transaction[].class);
+            assertTrue(page.length <= 2);
+            pages.addAll(Arrays.asList(page));
+            cursor = response.header("X-Next-Cursor");
+        } while (cursor != null);
+
+        assertEquals(all.size(), pages.size());
+        assertTrue(pages.containsAll(all));
+
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("after", "invalid")
+                .when()
+                .request(Method.GET, CONTEXT_ROOT + TRANSACTION_ROOT)
+                .then()
+                .assertThat()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    @Order(10)
+    public void testTransactionChanges() {
+        var watermark = getWatermark(TRANSACTION_ROOT);
+
+        // Modification time set by client does not affect synchronization
+        var created = System.currentTimeMillis() - 86_400_000;
+        var transaction = put(
+                newTransaction(UUID.randomUUID(), ACCOUNT_UUID, CATEGORY_UUID, null, created, created),
+                Transaction.class, TRANSACTION_ROOT);
+        assertEquals(List.of(transaction), getChanges(Transaction[].class, TRANSACTION_ROOT, watermark));
+
+        var deletedWatermark = getWatermark(TRANSACTION_ROOT + "/deleted");
+        assertTrue(getChanges(Transaction[].class, TRANSACTION_ROOT, deletedWatermark).isEmpty());
+
+        transactionService.deleteTransactions(List.of(transaction.uuid()));
+        assertEquals(List.of(transaction.uuid()),
+                getChanges(DeletedRecord[].class, TRANSACTION_ROOT + "/deleted", deletedWatermark).stream()
+                        .map(DeletedRecord::uuid)
+                        .toList());
+
+        // Tombstone is removed when the record is inserted again
+        put(transaction, Transaction.class, TRANSACTION_ROOT);
+        assertTrue(getChanges(DeletedRecord[].class, TRANSACTION_ROOT + "/deleted", deletedWatermark).isEmpty());
+        assertEquals(List.of(transaction), getChanges(Transaction[].class, TRANSACTION_ROOT, deletedWatermark));
+    }
+
     private <T extends MoneyRecord> void insertAndCheck(T insert, Class<T> clazz, Class<T[]> arrayClass, String api) {
         var inserted = put(insert, clazz, api);
         assertEquals(insert, inserted);
@@ -182,6 +293,34 @@ public class ControllerTest extends BaseSpringBootTest {
         return Arrays.asList(array);
     }
 
+    private long getWatermark(String api) {
+        var watermark = given()
+                .contentType(ContentType.JSON)
+                .queryParam("changedSince", Long.MAX_VALUE)
+                .when()
+                .request(Method.GET, CONTEXT_ROOT + api)
+                .then()
+                .assertThat()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .header("X-Change-Watermark");
+        return Long.parseLong(watermark);
+    }
+
+    private <T> List<T> getChanges(Class<T[]> clazz, String api, long changedSince) {
+        var array = given()
+                .contentType(ContentType.JSON)
+                .queryParam("changedSince", changedSince)
+                .when()
+                .request(Method.GET, CONTEXT_ROOT + api)
+                .then()
+                .assertThat()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(clazz);
+        return Arrays.asList(array);
+    }
+
     private <T> T get(UUID id, Class<T> clazz, String api) {
         return given()
                 .contentType(ContentType.JSON)
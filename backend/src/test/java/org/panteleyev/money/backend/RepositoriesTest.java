@@ -6,6 +6,9 @@ package org.panteleyev.money.backend;
 
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
+import org.panteleyev.money.backend.model.AccountBalance;
+import org.panteleyev.money.backend.model.RecordCursor;
+import org.panteleyev.money.backend.repository.AccountBalanceRepository;
 import org.panteleyev.money.backend.repository.AccountRepository;
 import org.panteleyev.money.backend.repository.CategoryRepository;
 import org.panteleyev.money.backend.repository.ContactRepository;
@@ -15,11 +18,17 @@ import org.panteleyev.money.backend.repository.IconRepository;
 import org.panteleyev.money.backend.repository.MoneyRepository;
 import org.panteleyev.money.backend.repository.TransactionRepository;
 import org.panteleyev.money.model.MoneyRecord;
+import org.panteleyev.money.model.Transaction;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.panteleyev.money.backend.BaseTestUtils.ICON_DOLLAR;
 import static org.panteleyev.money.backend.BaseTestUtils.ICON_EURO;
 import static org.panteleyev.money.backend.BaseTestUtils.newAccount;
@@ -49,6 +58,8 @@ public class RepositoriesTest extends BaseSpringBootTest {
     @Autowired
     private AccountRepository accountRepository;
     @Autowired
+    private AccountBalanceRepository accountBalanceRepository;
+    @Autowired
     private TransactionRepository transactionRepository;
     @Autowired
     private DocumentRepository documentRepository;
@@ -119,6 +130,100 @@ public class RepositoriesTest extends BaseSpringBootTest {
         insertAndUpdate(documentRepository, insert, update);
     }
 
+    @Test
+    @Order(8)
+    public void testTransactionsByDateRange() {
+        var created = System.currentTimeMillis();
+        var dates = List.of(
+                LocalDate.of(2001, 1, 1),
+                LocalDate.of(2001, 1, 8),
+                LocalDate.of(2001, 1, 15),
+                LocalDate.of(2001, 1, 22),
+                LocalDate.of(2001, 1, 29),
+                LocalDate.of(2001, 2, 1)
+        );
+        var transactions = new ArrayList<Transaction>();
+        for (var date : dates) {
+            var transaction = new Transaction.Builder(
+                    newTransaction(UUID.randomUUID(), ACCOUNT_UUID, CATEGORY_UUID, null, created, created))
+                    .transactionDate(date)
+                    .build();
+            assertEquals(1, transactionRepository.insertOrUpdate(transaction));
+            transactions.add(transaction);
+        }
+
+        // Month boundaries: February 1 belongs to the next month
+        assertEquals(transactions.subList(0, 5), transactionRepository.getByYearAndMonth(2001, 1));
+        assertEquals(transactions.subList(5, 6), transactionRepository.getByYearAndMonth(2001, 2));
+
+        // Range [from, to): start date is included, end date is excluded
+        var from = LocalDate.of(2001, 1, 8);
+        var to = LocalDate.of(2001, 2, 1);
+        assertEquals(transactions.subList(0, 1),
+                transactionRepository.getByDateRange(LocalDate.of(2001, 1, 1), from, null, 10));
+
+        var firstPage = transactionRepository.getByDateRange(from, to, null, 2);
+        assertEquals(transactions.subList(1, 3), firstPage);
+
+        var secondPage = transactionRepository.getByDateRange(from, to,
+                RecordCursor.of(firstPage.getLast()), 2);
+        assertEquals(transactions.subList(3, 5), secondPage);
+
+        var cursor = RecordCursor.of(secondPage.getLast());
+        assertEquals(cursor, RecordCursor.decode(cursor.encode(), LocalDate::parse));
+        assertTrue(transactionRepository.getByDateRange(from, to, cursor, 2).isEmpty());
+    }
+
+    @Test
+    @Order(9)
+    public void testGetByIds() {
+        var uuids = List.of(ACCOUNT_UUID, UUID.randomUUID());
+        assertEquals(List.of(accountRepository.get(ACCOUNT_UUID).orElseThrow()), accountRepository.getByIds(uuids));
+        assertEquals(List.of(contactRepository.get(CONTACT_UUID).orElseThrow()),
+                contactRepository.getByIds(List.of(CONTACT_UUID)));
+        assertEquals(List.of(transactionRepository.get(TRANSACTION_UUID).orElseThrow()),
+                transactionRepository.getByIds(List.of(TRANSACTION_UUID)));
+        assertTrue(transactionRepository.getByIds(List.of()).isEmpty());
+    }
+
+    @Test
+    @Order(10)
+    public void testBalances() {
+        var transactions = transactionRepository.getByAccountId(ACCOUNT_UUID).stream()
+                .filter(t -> t.parentUuid() == null)
+                .toList();
+        var total = transactions.stream()
+                .map(Transaction::creditAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        var waiting = transactions.stream()
+                .filter(t -> !t.checked())
+                .map(Transaction::creditAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        var balance = transactionRepository.getBalances(List.of(ACCOUNT_UUID)).get(ACCOUNT_UUID);
+        assertEquals(0, total.compareTo(balance.total()));
+        assertEquals(0, waiting.compareTo(balance.waiting()));
+    }
+
+    @Test
+    @Order(11)
+    public void testAccountBalanceProjection() {
+        accountBalanceRepository.rebuild();
+        var expected = transactionRepository.getBalances(List.of(ACCOUNT_UUID)).get(ACCOUNT_UUID);
+        var projection = accountBalanceRepository.get(ACCOUNT_UUID).orElseThrow();
+        assertEquals(0, expected.total().compareTo(projection.total()));
+        assertEquals(0, expected.waiting().compareTo(projection.waiting()));
+
+        var delta = new AccountBalance(BigDecimal.TEN, BigDecimal.ONE);
+        var updated = accountBalanceRepository.add(ACCOUNT_UUID, delta);
+        assertEquals(0, projection.add(delta).total().compareTo(updated.total()));
+        assertEquals(0, projection.add(delta).waiting().compareTo(updated.waiting()));
+
+        accountBalanceRepository.add(ACCOUNT_UUID, delta.negate());
+        assertEquals(projection.total().stripTrailingZeros(),
+                accountBalanceRepository.getAll().get(ACCOUNT_UUID).total().stripTrailingZeros());
+    }
+
     private static <T extends MoneyRecord> void insertAndUpdate(MoneyRepository<T> repository, T insert, T update) {
         var uuid = insert.uuid();
 
@@ -0,0 +1,65 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.panteleyev.money.backend.repository.CurrencyRepository;
+import org.panteleyev.money.backend.service.AccountService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.panteleyev.money.backend.config.MetricsConfiguration.BALANCE_TIMER;
+import static org.panteleyev.money.backend.config.MetricsConfiguration.REPOSITORY_TIMER;
+
+public class RepositoryMetricsTest extends BaseSpringBootTest {
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CurrencyRepository currencyRepository;
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    public void testRepositoryTimers() {
+        currencyRepository.getAll();
+        currencyRepository.get(UUID.randomUUID());
+
+        for (var method : new String[]{"getAll", "get"}) {
+            var timer = meterRegistry.find(REPOSITORY_TIMER)
+                    .tag("entity", "currency")
+                    .tag("method", method)
+                    .tag("exception", "none")
+                    .timer();
+            assertNotNull(timer, method);
+            assertTrue(timer.count() > 0, method);
+        }
+    }
+
+    @Test
+    public void testStreamsAreNotTimed() {
+        try (var stream = currencyRepository.getStream()) {
+            stream.forEach(_ -> {});
+        }
+
+        // Timer would measure only creation of the lazy stream
+        assertNull(meterRegistry.find(REPOSITORY_TIMER).tag("method", "getStream").timer());
+    }
+
+    @Test
+    public void testBalanceTimers() {
+        accountService.verifyBalances();
+
+        var timer = meterRegistry.find(BALANCE_TIMER)
+                .tag("method", "verifyBalances")
+                .timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() > 0);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.http.Method;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.panteleyev.money.backend.model.BatchRecordStatus;
+import org.panteleyev.money.backend.repository.AccountRepository;
+import org.panteleyev.money.backend.repository.CategoryRepository;
+import org.panteleyev.money.backend.repository.CurrencyRepository;
+import org.panteleyev.money.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.panteleyev.money.backend.BaseTestUtils.newAccount;
+import static org.panteleyev.money.backend.BaseTestUtils.newCategory;
+import static org.panteleyev.money.backend.BaseTestUtils.newCurrency;
+import static org.panteleyev.money.backend.BaseTestUtils.newTransaction;
+import static org.panteleyev.money.backend.BaseTestUtils.perSecond;
+import static org.panteleyev.money.backend.WebmoneyApplication.CONTEXT_ROOT;
+import static org.panteleyev.money.backend.WebmoneyApplication.TRANSACTION_ROOT;
+
+/**
+ * Compares throughput of the batch {@code PUT /transactions} with the same rows stored one by one. Both rates are
+ * written to the test log.
+ */
+public class TransactionBatchThroughputTest extends BaseSpringBootTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionBatchThroughputTest.class);
+
+    private static final int WARMUP_ROWS = 200;
+    private static final int ROWS = 2000;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private CurrencyRepository currencyRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private UUID categoryUuid;
+    private UUID accountUuid;
+
+    @BeforeEach
+    public void init() {
+        RestAssured.baseURI = "http://localhost:" + port;
+
+        var now = System.currentTimeMillis();
+        categoryUuid = UUID.randomUUID();
+        var currencyUuid = UUID.randomUUID();
+        accountUuid = UUID.randomUUID();
+        categoryRepository.insertOrUpdate(newCategory(categoryUuid, null, now, now));
+        currencyRepository.insertOrUpdate(newCurrency(currencyUuid, now, now));
+        accountRepository.insertOrUpdate(newAccount(accountUuid, categoryUuid, currencyUuid, null, now, now));
+    }
+
+    @Test
+    public void testBatchThroughput() {
+        putOneByOne(newTransactions(WARMUP_ROWS));
+        putBatch(newTransactions(WARMUP_ROWS));
+
+        var single = newTransactions(ROWS);
+        var start = System.nanoTime();
+        putOneByOne(single);
+        var singleRate = perSecond(ROWS, System.nanoTime() - start);
+
+        var batch = newTransactions(ROWS);
+        start = System.nanoTime();
+        putBatch(batch);
+        var batchRate = perSecond(ROWS, System.nanoTime() - start);
+
+        LOGGER.info("Single PUT: {} rows/sec, batch PUT: {} rows/sec, {} rows each",
+                Math.round(singleRate), Math.round(batchRate), ROWS);
+        assertTrue(batchRate > singleRate);
+    }
+
+    private List<Transaction> newTransactions(int count) {
+        var now = System.currentTimeMillis();
+        return IntStream.range(0, count)
+                .mapToObj(_ -> newTransaction(UUID.randomUUID(), accountUuid, categoryUuid, null, now, now))
+                .toList();
+    }
+
+    private static void putOneByOne(List<Transaction> transactions) {
+        for (var transaction : transactions) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(transaction)
+                    .when()
+                    .request(Method.PUT, CONTEXT_ROOT + TRANSACTION_ROOT + "/" + transaction.uuid())
+                    .then()
+                    .assertThat()
+                    .statusCode(HttpStatus.OK.value());
+        }
+    }
+
+    private static void putBatch(List<Transaction> transactions) {
+        var statuses = given()
+                .contentType(ContentType.JSON)
+                .body(transactions)
+                .when()
+                .request(Method.PUT, CONTEXT_ROOT + TRANSACTION_ROOT)
+                .then()
+                .assertThat()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(BatchRecordStatus[].class);
+
+        assertEquals(transactions.size(), statuses.length);
+        assertTrue(Arrays.stream(statuses).allMatch(s -> s.status() == BatchRecordStatus.Status.OK));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend;
+
+import org.junit.jupiter.api.Test;
+import org.panteleyev.money.backend.repository.AccountRepository;
+import org.panteleyev.money.backend.repository.CategoryRepository;
+import org.panteleyev.money.backend.repository.CurrencyRepository;
+import org.panteleyev.money.backend.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.panteleyev.money.backend.BaseTestUtils.newAccount;
+import static org.panteleyev.money.backend.BaseTestUtils.newCategory;
+import static org.panteleyev.money.backend.BaseTestUtils.newCurrency;
+import static org.panteleyev.money.backend.BaseTestUtils.newTransaction;
+
+public class TransactionQueryPlanTest extends BaseSpringBootTest {
+    private static final int TRANSACTION_COUNT = 100_000;
+    private static final int DATE_SPREAD_DAYS = 9_000;
+    private static final String DATE_INDEX = "transaction_date_idx";
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private CurrencyRepository currencyRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testDateRangeQueryUsesIndex() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Generated rows must not be visible to other tests
+            status.setRollbackOnly();
+
+            var template = insertTemplateTransaction();
+            jdbcTemplate.update("""
+                    INSERT INTO transaction
+                    SELECT (jsonb_populate_record(NULL::transaction, to_jsonb(t) || jsonb_build_object(
+                        'uuid', gen_random_uuid(),
+                        'transaction_date', DATE '2000-01-01' + (i % :spread)
+                    ))).*
+                    FROM transaction t, generate_series(1, :count) i
+                    WHERE t.uuid = :uuid
+                    """, Map.of("spread", DATE_SPREAD_DAYS, "count", TRANSACTION_COUNT, "uuid", template));
+            jdbcTemplate.getJdbcTemplate().execute("ANALYZE transaction");
+
+            var from = LocalDate.of(2010, 3, 1);
+            var params = Map.<String, Object>of(
+                    "from", Date.valueOf(from),
+                    "to", Date.valueOf(from.plusMonths(1)),
+                    "afterDate", Date.valueOf(from.plusDays(10)),
+                    "afterUuid", UUID.randomUUID(),
+                    "limit", 100
+            );
+
+            for (var withCursor : new boolean[] { false, true }) {
+                var plan = String.join("\n", jdbcTemplate.queryForList(
+                        "EXPLAIN " + TransactionRepository.getByDateRangeQuery(withCursor), params, String.class));
+                assertTrue(plan.contains(DATE_INDEX), "Index is not used, cursor = " + withCursor + ":\n" + plan);
+            }
+        });
+    }
+
+    private UUID insertTemplateTransaction() {
+        var now = System.currentTimeMillis();
+        var categoryUuid = UUID.randomUUID();
+        var currencyUuid = UUID.randomUUID();
+        var accountUuid = UUID.randomUUID();
+        var transactionUuid = UUID.randomUUID();
+
+        categoryRepository.insertOrUpdate(newCategory(categoryUuid, null, now, now));
+        currencyRepository.insertOrUpdate(newCurrency(currencyUuid, now, now));
+        accountRepository.insertOrUpdate(newAccount(accountUuid, categoryUuid, currencyUuid, null, now, now));
+        transactionRepository.insertOrUpdate(
+                newTransaction(transactionUuid, accountUuid, categoryUuid, null, now, now));
+        return transactionUuid;
+    }
+}
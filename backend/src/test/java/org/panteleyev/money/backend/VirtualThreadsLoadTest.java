@@ -0,0 +1,130 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.panteleyev.money.backend.config.ConcurrencyLimitedDataSource;
+import org.panteleyev.money.client.MoneyClient;
+import org.panteleyev.money.model.Currency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.panteleyev.money.backend.BaseTestUtils.newCurrency;
+import static org.panteleyev.money.backend.BaseTestUtils.perSecond;
+
+/**
+ * Runs many concurrent clients against the backend with a small connection pool in virtual and platform thread
+ * modes. Elapsed time and throughput of both modes are written to the test log.
+ */
+public class VirtualThreadsLoadTest {
+    static final int MAX_CONCURRENCY = 2;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadsLoadTest.class);
+
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    // Each client iteration sends list and stream requests
+    private static final int REQUESTS = CLIENTS * REQUESTS_PER_CLIENT * 2;
+
+    private static final Map<String, Double> THROUGHPUT = new ConcurrentHashMap<>();
+
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.threads.virtual.enabled=true",
+            "spring.datasource.hikari.maximum-pool-size=" + MAX_CONCURRENCY
+    })
+    class VirtualThreads extends LoadTest {
+        @Test
+        public void testConcurrentClients() throws Exception {
+            runClients("virtual threads");
+
+            var limiter = assertInstanceOf(ConcurrencyLimitedDataSource.class, dataSource);
+            assertEquals(MAX_CONCURRENCY, limiter.getMaxConcurrency());
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.threads.virtual.enabled=false",
+            "spring.datasource.hikari.maximum-pool-size=" + MAX_CONCURRENCY
+    })
+    class PlatformThreads extends LoadTest {
+        @Test
+        public void testConcurrentClients() throws Exception {
+            runClients("platform threads");
+
+            assertFalse(dataSource instanceof ConcurrencyLimitedDataSource);
+        }
+    }
+
+    @AfterAll
+    public static void report() {
+        THROUGHPUT.forEach((mode, rate) -> LOGGER.info("Throughput with {}: {} requests/sec", mode, Math.round(rate)));
+    }
+
+    abstract static class LoadTest extends BaseSpringBootTest {
+        @LocalServerPort
+        private int port;
+        @Autowired
+        DataSource dataSource;
+
+        void runClients(String mode) throws Exception {
+            try (var client = new MoneyClient.Builder()
+                    .withServerUrl("http://localhost:" + port)
+                    .build()
+            ) {
+                var now = System.currentTimeMillis();
+                var currency = client.putCurrency(newCurrency(UUID.randomUUID(), now, now));
+
+                var streamed = new AtomicInteger();
+                var futures = new ArrayList<Future<List<Currency>>>();
+                var start = System.nanoTime();
+                try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (int i = 0; i < CLIENTS; i++) {
+                        futures.add(executor.submit(() -> {
+                            List<Currency> result = List.of();
+                            for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                                result = client.getCurrencies();
+                                client.consumeCurrencyStream(chunk -> streamed.addAndGet(chunk.size()));
+                            }
+                            return result;
+                        }));
+                    }
+                }
+                var elapsed = System.nanoTime() - start;
+
+                for (var future : futures) {
+                    assertTrue(future.get(1, TimeUnit.MINUTES).contains(currency));
+                }
+                assertTrue(streamed.get() >= CLIENTS * REQUESTS_PER_CLIENT);
+
+                var rate = perSecond(REQUESTS, elapsed);
+                THROUGHPUT.put(mode, rate);
+                LOGGER.info("{} requests with {}: {} ms, {} requests/sec",
+                        REQUESTS, mode, TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(rate));
+            }
+        }
+    }
+}
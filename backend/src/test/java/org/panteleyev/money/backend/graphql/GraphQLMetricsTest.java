@@ -0,0 +1,43 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.graphql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.panteleyev.money.backend.BaseSpringBootTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.createCurrency;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.loadQuery;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.newClient;
+
+public class GraphQLMetricsTest extends BaseSpringBootTest {
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testDataFetcherTimers() {
+        var client = newClient(port);
+        var created = createCurrency(client);
+        client.currencyQuery(loadQuery("currency/getCurrency.graphql"), Map.of("uuid", created.uuid().toString()));
+        client.currencyListQuery(loadQuery("currency/getCurrencies.graphql"));
+
+        for (var field : new String[]{"createCurrency", "currency", "currencies"}) {
+            var timer = meterRegistry.find("graphql.datafetcher")
+                    .tag("graphql.field.name", field)
+                    .tag("graphql.outcome", "SUCCESS")
+                    .timer();
+            assertNotNull(timer, field);
+            assertTrue(timer.count() > 0, field);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.backend.graphql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.panteleyev.money.backend.BaseSpringBootTest;
+import org.panteleyev.money.client.MoneyClient;
+import org.panteleyev.money.client.dto.AccountDto;
+import org.panteleyev.money.client.dto.TransactionDto;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.checkCollection;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.checkObject;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.createAccount;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.createCategory;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.createCurrency;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.loadQuery;
+import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.newClient;
+import static org.panteleyev.money.model.CategoryType.EXPENSES;
+import static org.panteleyev.money.model.CategoryType.INCOMES;
+import static org.panteleyev.money.model.TransactionType.CARD_PAYMENT;
+
+public class TransactionBulkTest extends BaseSpringBootTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final AtomicReference<MoneyClient> client = new AtomicReference<>(null);
+
+    private AccountDto debitedAccount;
+    private AccountDto creditedAccount;
+
+    @BeforeEach
+    public void init() {
+        client.set(newClient(port));
+
+        var currency = createCurrency(client.get());
+        var debitedCategory = createCategory(client.get(), "Debited Category", EXPENSES);
+        var creditedCategory = createCategory(client.get(), "Credited Category", INCOMES);
+        debitedAccount = createAccount(client.get(), debitedCategory.uuid(), currency.uuid());
+        creditedAccount = createAccount(client.get(), creditedCategory.uuid(), currency.uuid());
+    }
+
+    @Test
+    public void testBulkOperations() throws Exception {
+        var createResult = client.get().transactionsModificationQuery(
+                loadQuery("transaction/createTransactions.graphql"),
+                Map.of("inputs", List.of(input("1"), input("2"), input("10")))
+        );
+        assertEquals("createTransactions", createResult.operation());
+
+        var created = createResult.payload().transactions();
+        assertEquals(3, created.size());
+        checkObject(created.getFirst(), Map.ofEntries(
+                entry("amount", new BigDecimal("1.000000")),
+                entry("type", CARD_PAYMENT),
+                entry("accountDebited", Map.of("uuid", debitedAccount.uuid())),
+                entry("accountCredited", Map.of("uuid", creditedAccount.uuid()))
+        ));
+        checkBalances(createResult.payload().accounts(), "13.000000");
+
+        var updateResult = client.get().transactionsModificationQuery(
+                loadQuery("transaction/updateTransactions.graphql"),
+                Map.of("inputs", List.of(
+                        Map.of("uuid", created.getFirst().uuid().toString(), "input", input("10"))
+                ))
+        );
+        assertEquals("updateTransactions", updateResult.operation());
+        checkBalances(updateResult.payload().accounts(), "22.000000");
+
+        var deleteResult = client.get().transactionsModificationQuery(
+                loadQuery("transaction/deleteTransactions.graphql"),
+                Map.of("uuids", List.of(created.get(1).uuid().toString(), created.get(2).uuid().toString()))
+        );
+        assertEquals("deleteTransactions", deleteResult.operation());
+        assertEquals(
+                Set.of(created.get(1).uuid(), created.get(2).uuid()),
+                deleteResult.payload().transactions().stream().map(TransactionDto::uuid).collect(Collectors.toSet())
+        );
+        checkBalances(deleteResult.payload().accounts(), "10.000000");
+    }
+
+    @Test
+    public void testDuplicateUuid() throws Exception {
+        var createResult = client.get().transactionsModificationQuery(
+                loadQuery("transaction/createTransactions.graphql"),
+                Map.of("inputs", List.of(input("1")))
+        );
+        var uuid = createResult.payload().transactions().getFirst().uuid().toString();
+
+        // The last version of the duplicated transaction wins, balance delta is applied once
+        var updateResult = client.get().transactionsModificationQuery(
+                loadQuery("transaction/updateTransactions.graphql"),
+                Map.of("inputs", List.of(
+                        Map.of("uuid", uuid, "input", input("5")),
+                        Map.of("uuid", uuid, "input", input("20"))
+                ))
+        );
+
+        var transactions = updateResult.payload().transactions();
+        assertEquals(1, transactions.size());
+        assertEquals(new BigDecimal("20.000000"), transactions.getFirst().amount());
+        checkBalances(updateResult.payload().accounts(), "20.000000");
+        assertTrue(updateResult.payload().contacts().isEmpty());
+    }
+
+    private void checkBalances(List<AccountDto> accounts, String total) throws Exception {
+        checkCollection(accounts, List.of(
+                Map.of(
+                        "uuid", debitedAccount.uuid(),
+                        "total", new BigDecimal("-" + total),
+                        "totalWaiting", new BigDecimal("-" + total)
+                ),
+                Map.of(
+                        "uuid", creditedAccount.uuid(),
+                        "total", new BigDecimal(total),
+                        "totalWaiting", new BigDecimal(total)
+                )
+        ));
+    }
+
+    private Map<String, Object> input(String amount) {
+        return Map.ofEntries(
+                entry("amount", new BigDecimal(amount)),
+                entry("creditAmount", new BigDecimal(amount)),
+                entry("transactionDate", "2024-10-01"),
+                entry("type", CARD_PAYMENT),
+                entry("comment", "Bulk comment"),
+                entry("checked", false),
+                entry("accountDebitedUuid", debitedAccount.uuid().toString()),
+                entry("accountCreditedUuid", creditedAccount.uuid().toString()),
+                entry("invoiceNumber", ""),
+                entry("detailed", false)
+        );
+    }
+}
@@ -7,19 +7,28 @@ package org.panteleyev.money.backend.graphql;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.panteleyev.money.backend.BaseSpringBootTest;
+import org.panteleyev.money.client.DeletedRecord;
 import org.panteleyev.money.client.MoneyClient;
+import org.panteleyev.money.client.dto.TransactionDto;
 import org.springframework.boot.test.web.server.LocalServerPort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Map.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.checkCollection;
 import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.checkObject;
 import static org.panteleyev.money.backend.graphql.GraphQLTestUtil.createAccount;
@@ -154,4 +163,129 @@ public class TransactionTest extends BaseSpringBootTest {
                 )
         ));
     }
+
+    @Test
+    public void testChanges() throws Exception {
+        var currency = createCurrency(client.get());
+        var debitedCategory = createCategory(client.get(), "Debited Category", EXPENSES);
+        var creditedCategory = createCategory(client.get(), "Credited Category", INCOMES);
+        var debitedAccount = createAccount(client.get(), debitedCategory.uuid(), currency.uuid());
+        var creditedAccount = createAccount(client.get(), creditedCategory.uuid(), currency.uuid());
+
+        var watermark = client.get().changeWatermarkQuery(loadQuery("transaction/changeWatermark.graphql"));
+        assertEquals("changeWatermark", watermark.operation());
+
+        var created = client.get().transactionModificationQuery(
+                loadQuery("transaction/createTransaction.graphql"),
+                Map.of(
+                        "debitedAccountUuid", debitedAccount.uuid(),
+                        "creditedAccountUuid", creditedAccount.uuid()
+                )
+        ).payload().transaction();
+
+        var changed = client.get().transactionListQuery(
+                loadQuery("transaction/getTransactionsChangedSince.graphql"),
+                Map.of("changedSince", watermark.payload())
+        );
+        assertEquals("transactionsChangedSince", changed.operation());
+        assertEquals(List.of(created.uuid()), changed.payload().stream().map(TransactionDto::uuid).toList());
+
+        var deletedWatermark = client.get().changeWatermarkQuery(loadQuery("transaction/changeWatermark.graphql"))
+                .payload();
+        client.get().transactionsModificationQuery(
+                loadQuery("transaction/deleteTransactions.graphql"),
+                Map.of("uuids", List.of(created.uuid().toString()))
+        );
+
+        var deleted = client.get().deletedRecordListQuery(
+                loadQuery("transaction/getDeletedTransactions.graphql"),
+                Map.of("changedSince", deletedWatermark)
+        );
+        assertEquals("deletedTransactions", deleted.operation());
+        assertEquals(List.of(created.uuid()), deleted.payload().stream().map(DeletedRecord::uuid).toList());
+    }
+
+    @Test
+    public void testConnection() throws Exception {
+        var currency = createCurrency(client.get());
+        var debitedCategory = createCategory(client.get(), "Debited Category", EXPENSES);
+        var creditedCategory = createCategory(client.get(), "Credited Category", INCOMES);
+        var debitedAccount = createAccount(client.get(), debitedCategory.uuid(), currency.uuid());
+        var creditedAccount = createAccount(client.get(), creditedCategory.uuid(), currency.uuid());
+
+        var watermark = client.get().changeWatermarkQuery(loadQuery("transaction/changeWatermark.graphql"))
+                .payload();
+        var created = new HashSet<UUID>();
+        for (int i = 0; i < 3; i++) {
+            created.add(client.get().transactionModificationQuery(
+                    loadQuery("transaction/createTransaction.graphql"),
+                    Map.of(
+                            "debitedAccountUuid", debitedAccount.uuid(),
+                            "creditedAccountUuid", creditedAccount.uuid()
+                    )
+            ).payload().transaction().uuid());
+        }
+
+        var query = loadQuery("transaction/getTransactionsConnection.graphql");
+        var firstResult = client.get().transactionConnectionQuery(query,
+                Map.of("changedSince", watermark, "first", 2));
+        assertEquals("transactionsConnection", firstResult.operation());
+        var firstPage = firstResult.payload();
+        assertEquals(2, firstPage.edges().size());
+        assertTrue(firstPage.pageInfo().hasNextPage());
+        assertEquals(firstPage.edges().getLast().cursor(), firstPage.pageInfo().endCursor());
+
+        var secondPage = client.get().transactionConnectionQuery(query,
+                Map.of("changedSince", watermark, "first", 2, "after", firstPage.pageInfo().endCursor())
+        ).payload();
+        assertEquals(1, secondPage.edges().size());
+        assertFalse(secondPage.pageInfo().hasNextPage());
+
+        assertEquals(created, Stream.concat(firstPage.edges().stream(), secondPage.edges().stream())
+                .map(edge -> edge.node().uuid())
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testDateRange() throws Exception {
+        var currency = createCurrency(client.get());
+        var debitedCategory = createCategory(client.get(), "Debited Category", EXPENSES);
+        var creditedCategory = createCategory(client.get(), "Credited Category", INCOMES);
+        var debitedAccount = createAccount(client.get(), debitedCategory.uuid(), currency.uuid());
+        var creditedAccount = createAccount(client.get(), creditedCategory.uuid(), currency.uuid());
+
+        // The last date is outside of the range
+        var dates = List.of("2023-03-20", "2023-03-01", "2023-03-10", "2023-04-01");
+        var created = new HashMap<String, UUID>();
+        for (var date : dates) {
+            created.put(date, client.get().transactionModificationQuery(
+                    loadQuery("transaction/createTransaction.graphql"),
+                    Map.of(
+                            "debitedAccountUuid", debitedAccount.uuid(),
+                            "creditedAccountUuid", creditedAccount.uuid(),
+                            "transactionDate", date
+                    )
+            ).payload().transaction().uuid());
+        }
+
+        var query = loadQuery("transaction/getTransactionsByDateRange.graphql");
+        var range = Map.<String, Object>of("from", "2023-03-01", "to", "2023-04-01", "first", 2);
+        var firstResult = client.get().transactionConnectionQuery(query, range);
+        assertEquals("transactionsByDateRange", firstResult.operation());
+        var firstPage = firstResult.payload();
+        assertTrue(firstPage.pageInfo().hasNextPage());
+        assertEquals(firstPage.edges().getLast().cursor(), firstPage.pageInfo().endCursor());
+
+        var variables = new HashMap<>(range);
+        variables.put("after", firstPage.pageInfo().endCursor());
+        var secondPage = client.get().transactionConnectionQuery(query, variables).payload();
+        assertFalse(secondPage.pageInfo().hasNextPage());
+
+        assertEquals(
+                List.of(created.get("2023-03-01"), created.get("2023-03-10"), created.get("2023-03-20")),
+                Stream.concat(firstPage.edges().stream(), secondPage.edges().stream())
+                        .map(edge -> edge.node().uuid())
+                        .toList()
+        );
+    }
 }
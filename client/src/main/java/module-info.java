@@ -9,6 +9,7 @@ module money.manager.client {
     requires com.fasterxml.jackson.databind;
     requires com.fasterxml.jackson.datatype.jsr310;
     requires com.fasterxml.jackson.datatype.jdk8;
+    requires com.fasterxml.jackson.dataformat.smile;
 
     requires org.panteleyev.money.model;
 
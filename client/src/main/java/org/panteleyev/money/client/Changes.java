@@ -0,0 +1,17 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import java.util.List;
+
+/**
+ * Records changed on the server.
+ *
+ * @param records   changed records
+ * @param watermark change id to pass to the next incremental request
+ * @param <T>       record type
+ */
+public record Changes<T>(List<T> records, long watermark) {
+}
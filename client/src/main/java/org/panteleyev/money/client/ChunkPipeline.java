@@ -0,0 +1,130 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Connects producer and consumer of chunks running in separate threads with a bounded queue. Producer blocks when the
+ * queue is full, consumer runs in the calling thread. If consumer fails or the calling thread is interrupted the
+ * producer thread is interrupted, so blocking read of the response body is aborted.
+ */
+final class ChunkPipeline {
+    /**
+     * Producer task that can be interrupted by the consumer. Interrupt is delivered only while the task is running,
+     * so it never leaks to the next task of a pooled thread.
+     *
+     * @param <T> element type
+     */
+    private static final class Producer<T> implements Runnable {
+        private final Consumer<Consumer<List<T>>> producer;
+        private final BlockingQueue<List<T>> queue;
+        private final List<T> endOfStream;
+        private Thread thread;
+        private boolean cancelled;
+
+        Producer(Consumer<Consumer<List<T>>> producer, BlockingQueue<List<T>> queue, List<T> endOfStream) {
+            this.producer = producer;
+            this.queue = queue;
+            this.endOfStream = endOfStream;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (cancelled) {
+                    throw new CancellationException("Chunk consumer failed");
+                }
+                thread = Thread.currentThread();
+            }
+            try {
+                producer.accept(this::put);
+            } finally {
+                // Consumer does not read the queue after failure
+                if (!isCancelled()) {
+                    put(endOfStream);
+                }
+                synchronized (this) {
+                    thread = null;
+                    // Clear interrupt delivered after the last blocking call
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        private synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void put(List<T> chunk) {
+            try {
+                queue.put(chunk);
+            } catch (InterruptedException ex) {
+                throw new CancellationException("Chunk consumer failed");
+            }
+        }
+    }
+
+    private ChunkPipeline() {
+    }
+
+    /**
+     * Runs the pipeline and waits for its completion. If consumer fails the method returns when the producer is
+     * stopped.
+     *
+     * @param executor   executor for the producer
+     * @param queueDepth maximum number of chunks waiting for the consumer
+     * @param producer   producer that passes chunks to the provided consumer
+     * @param consumer   chunk consumer
+     * @param <T>        element type
+     */
+    static <T> void run(
+            Executor executor,
+            int queueDepth,
+            Consumer<Consumer<List<T>>> producer,
+            Consumer<List<T>> consumer
+    ) {
+        var queue = new ArrayBlockingQueue<List<T>>(queueDepth);
+        var endOfStream = new ArrayList<T>(0);
+
+        var task = new Producer<>(producer, queue, endOfStream);
+        var production = CompletableFuture.runAsync(task, executor);
+
+        try {
+            for (var chunk = queue.take(); chunk != endOfStream; chunk = queue.take()) {
+                consumer.accept(chunk);
+            }
+        } catch (InterruptedException ex) {
+            stop(task, production);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted");
+        } catch (RuntimeException | Error ex) {
+            stop(task, production);
+            throw ex;
+        }
+
+        Client.join(production);
+    }
+
+    private static void stop(Producer<?> task, CompletableFuture<Void> production) {
+        task.cancel();
+        // Consumer failure is reported, producer failure caused by cancellation is not interesting
+        production.exceptionally(_ -> null).join();
+    }
+}
@@ -6,118 +6,313 @@ package org.panteleyev.money.client;
 
 import org.panteleyev.money.model.MoneyRecord;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
 
 import static java.net.HttpURLConnection.HTTP_ACCEPTED;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.net.HttpURLConnection.HTTP_OK;
 
+/**
+ * REST client of a single record type. Blocking methods wait for the corresponding asynchronous ones.
+ *
+ * @param <T> record type
+ */
 class Client<T extends MoneyRecord> {
     private static final String APPLICATION_JSON = "application/json";
     private static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+    private static final String APPLICATION_SMILE = "application/x-jackson-smile";
+    private static final String GZIP = "gzip";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String CHANGE_WATERMARK_HEADER = "X-Change-Watermark";
+    // Maximum page size accepted by the server
+    private static final int PAGE_SIZE = 1000;
 
     private final URI url;
     private final HttpClient httpClient;
+    private final Executor executor;
 
     private final JsonHandler<T> jsonHandler;
+    private final JsonHandler<DeletedRecord> deletedRecordHandler = new JsonHandler<>(DeletedRecord.class);
     private final int streamingChunkSize;
+    private final int streamingQueueDepth;
+    private final boolean binaryStreaming;
+    private final boolean compression;
 
-    public Client(URI url, HttpClient httpClient, Class<T> objectClass, int streamingChunkSize) {
+    /**
+     * Creates client.
+     *
+     * @param url                 base URL of the record type
+     * @param httpClient          HTTP client
+     * @param executor            executor used to parse streaming responses
+     * @param objectClass         record class
+     * @param streamingChunkSize  chunk size for streaming calls
+     * @param streamingQueueDepth number of parsed chunks waiting for consumer, zero disables pipelining
+     * @param binaryStreaming     true to request Smile encoding for streaming calls
+     * @param compression         true to request gzip compressed responses
+     */
+    public Client(
+            URI url,
+            HttpClient httpClient,
+            Executor executor,
+            Class<T> objectClass,
+            int streamingChunkSize,
+            int streamingQueueDepth,
+            boolean binaryStreaming,
+            boolean compression
+    ) {
         this.url = url;
         this.httpClient = httpClient;
+        this.executor = executor;
         this.jsonHandler = new JsonHandler<>(objectClass);
         this.streamingChunkSize = streamingChunkSize;
+        this.streamingQueueDepth = streamingQueueDepth;
+        this.binaryStreaming = binaryStreaming;
+        this.compression = compression;
     }
 
     public List<T> getAll() {
-        var request = HttpRequest.newBuilder(url)
-                .GET()
-                .setHeader("Accept", APPLICATION_JSON)
-                .build();
+        return join(getAllAsync());
+    }
 
-        try {
-            var response = httpClient.send(request, responseInfo -> HttpResponse.BodySubscribers.ofInputStream());
-            if (response.statusCode() != HTTP_OK) {
-                throw new IOException("Cannot get " + url);
-            }
+    public Changes<T> getChanges(long changedSince) {
+        return join(getChangesAsync(changedSince));
+    }
 
-            try (var inputStream = response.body()) {
-                return jsonHandler.parseArray(inputStream);
-            }
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
+    public Changes<DeletedRecord> getDeleted(long changedSince) {
+        return join(getDeletedAsync(changedSince));
+    }
+
+    public CompletableFuture<Changes<DeletedRecord>> getDeletedAsync(long changedSince) {
+        return getListAsync(
+                URI.create(url.toString() + "/deleted?changedSince=" + changedSince),
+                deletedRecordHandler,
+                DeletedRecord::uuid
+        );
+    }
+
+    /**
+     * Retrieves all records following pages until the last one.
+     *
+     * @return records
+     */
+    public CompletableFuture<List<T>> getAllAsync() {
+        return getListAsync(url, jsonHandler, MoneyRecord::uuid).thenApply(Changes::records);
+    }
+
+    /**
+     * Retrieves records changed since the specified change id following pages until the last one.
+     *
+     * @param changedSince watermark of the previous request, 0 for all records
+     * @return records and watermark for the next request
+     */
+    public CompletableFuture<Changes<T>> getChangesAsync(long changedSince) {
+        return getListAsync(
+                URI.create(url.toString() + "?changedSince=" + changedSince),
+                jsonHandler,
+                MoneyRecord::uuid
+        );
+    }
+
+    /**
+     * Retrieves all pages. Pages are ordered by change id, so record modified while pages are read is returned
+     * again on a later page. Such duplicates are removed, the last version of the record wins.
+     */
+    private <R> CompletableFuture<Changes<R>> getListAsync(URI uri, JsonHandler<R> handler, Function<R, UUID> key) {
+        var result = new LinkedHashMap<UUID, R>();
+        return getPageAsync(uri, null, 0, handler, records -> records.forEach(r -> result.put(key.apply(r), r)))
+                .thenApply(watermark -> new Changes<>(new ArrayList<>(result.values()), watermark));
+    }
+
+    /**
+     * Retrieves page and all following pages. Page size is always sent, so the server returns cursor of the next page
+     * instead of the whole list. Watermark of the first page is returned as it is taken before any page is read.
+     */
+    private <R> CompletableFuture<Long> getPageAsync(
+            URI uri,
+            String cursor,
+            long watermark,
+            JsonHandler<R> handler,
+            Consumer<List<R>> pageConsumer
+    ) {
+        var pageUri = URI.create(uri.toString() + (uri.getQuery() == null ? "?" : "&") + "limit=" + PAGE_SIZE
+                + (cursor == null ? "" : "&after=" + cursor));
+        var builder = HttpRequest.newBuilder(pageUri)
+                .GET()
+                .setHeader("Accept", APPLICATION_JSON);
+        if (compression) {
+            builder.setHeader("Accept-Encoding", GZIP);
         }
+
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenCompose(response -> {
+                    checkStatus(response, HTTP_OK, "Cannot get " + pageUri);
+                    try (var inputStream = decode(response.headers(), new ByteArrayInputStream(response.body()))) {
+                        pageConsumer.accept(handler.parseArray(inputStream));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+
+                    var firstWatermark = cursor == null ? getWatermark(response.headers()) : watermark;
+                    return response.headers().firstValue(NEXT_CURSOR_HEADER)
+                            .map(next -> getPageAsync(uri, next, firstWatermark, handler, pageConsumer))
+                            .orElseGet(() -> CompletableFuture.completedFuture(firstWatermark));
+                });
     }
 
     public void getAllAsStream(Consumer<List<T>> listConsumer) {
-        var request = HttpRequest.newBuilder(URI.create(url.toString() + "/stream"))
+        consumeStream(join(sendStreamRequest(URI.create(url.toString() + "/stream"))), listConsumer);
+    }
+
+    public long getChangesAsStream(long changedSince, Consumer<List<T>> listConsumer) {
+        return join(getChangesAsStreamAsync(changedSince, listConsumer));
+    }
+
+    /**
+     * Retrieves all records as stream. Chunks are passed to the consumer in an executor thread.
+     *
+     * @param listConsumer chunk consumer
+     * @return future completed when stream is consumed
+     */
+    public CompletableFuture<Void> getAllAsStreamAsync(Consumer<List<T>> listConsumer) {
+        return sendStreamRequest(URI.create(url.toString() + "/stream"))
+                .thenAcceptAsync(response -> consumeStream(response, listConsumer), executor);
+    }
+
+    /**
+     * Retrieves records changed since the specified change id as stream. Chunks are passed to the consumer in an
+     * executor thread.
+     *
+     * @param changedSince watermark of the previous request, 0 for all records
+     * @param listConsumer chunk consumer
+     * @return future completed with watermark for the next request when stream is consumed
+     */
+    public CompletableFuture<Long> getChangesAsStreamAsync(long changedSince, Consumer<List<T>> listConsumer) {
+        return sendStreamRequest(URI.create(url.toString() + "/stream?changedSince=" + changedSince))
+                .thenApplyAsync(response -> {
+                    consumeStream(response, listConsumer);
+                    return getWatermark(response.headers());
+                }, executor);
+    }
+
+    private CompletableFuture<HttpResponse<InputStream>> sendStreamRequest(URI uri) {
+        var builder = HttpRequest.newBuilder(uri)
                 .GET()
-                .setHeader("Accept", APPLICATION_OCTET_STREAM)
-                .build();
+                .setHeader("Accept", binaryStreaming ?
+                        APPLICATION_SMILE + ", " + APPLICATION_OCTET_STREAM : APPLICATION_OCTET_STREAM);
+        if (compression) {
+            builder.setHeader("Accept-Encoding", GZIP);
+        }
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
 
-        try {
-            var response = httpClient.send(request, responseInfo -> HttpResponse.BodySubscribers.ofInputStream());
-            if (response.statusCode() != HTTP_ACCEPTED) {
-                throw new IOException("Cannot retrieve stream");
-            }
+    /**
+     * Passes chunks of the streaming response to the consumer. If pipelining is enabled the response is parsed in a
+     * separate thread, so slow consumer does not block network read until the queue is full.
+     */
+    private void consumeStream(HttpResponse<InputStream> response, Consumer<List<T>> listConsumer) {
+        if (streamingQueueDepth == 0) {
+            parseStream(response, listConsumer);
+        } else {
+            ChunkPipeline.run(executor, streamingQueueDepth, c -> parseStream(response, c), listConsumer);
+        }
+    }
 
-            try (var inputStream = response.body()) {
-                jsonHandler.parseStream(inputStream, listConsumer, streamingChunkSize);
+    private void parseStream(HttpResponse<InputStream> response, Consumer<List<T>> listConsumer) {
+        var smile = response.headers().firstValue("Content-Type")
+                .map(contentType -> contentType.startsWith(APPLICATION_SMILE))
+                .orElse(false);
+        try (var body = response.body()) {
+            checkStatus(response, HTTP_ACCEPTED, "Cannot retrieve stream");
+            try (var inputStream = decode(response.headers(), body)) {
+                jsonHandler.parseStream(inputStream, smile, listConsumer, streamingChunkSize);
             }
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
         }
     }
 
     public Optional<T> get(UUID uuid) {
+        return join(getAsync(uuid));
+    }
+
+    public CompletableFuture<Optional<T>> getAsync(UUID uuid) {
         var request = HttpRequest.newBuilder(URI.create(url.toString() + "/" + uuid.toString()))
                 .GET()
                 .setHeader("Accept", APPLICATION_JSON)
                 .build();
 
-        try {
-            var response = httpClient.send(request, responseInfo -> HttpResponse.BodySubscribers.ofInputStream());
-            if (response.statusCode() == HTTP_NOT_FOUND) {
-                return Optional.empty();
-            }
-            if (response.statusCode() != HTTP_OK) {
-                throw new IOException("Cannot get " + url);
-            }
-
-            try (var inputStream = response.body()) {
-                return Optional.of(jsonHandler.parseObject(inputStream));
-            }
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
-        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() == HTTP_NOT_FOUND) {
+                        return Optional.empty();
+                    }
+                    checkStatus(response, HTTP_OK, "Cannot get " + url);
+                    return Optional.of(jsonHandler.parseObject(new ByteArrayInputStream(response.body())));
+                });
     }
 
     public T put(T record) {
+        return join(putAsync(record));
+    }
+
+    public CompletableFuture<T> putAsync(T record) {
         var request = HttpRequest.newBuilder(URI.create(url.toString() + "/" + record.uuid().toString()))
                 .PUT(HttpRequest.BodyPublishers.ofByteArray(jsonHandler.convert(record)))
                 .setHeader("Content-Type", APPLICATION_JSON)
                 .setHeader("Accept", APPLICATION_JSON)
                 .build();
 
-        try {
-            var response = httpClient.send(request, responseInfo -> HttpResponse.BodySubscribers.ofInputStream());
-            if (response.statusCode() != HTTP_OK) {
-                throw new IOException("Cannot put record to " + url);
-            }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    checkStatus(response, HTTP_OK, "Cannot put record to " + url);
+                    return jsonHandler.parseObject(new ByteArrayInputStream(response.body()));
+                });
+    }
 
-            try (var inputStream = response.body()) {
-                return jsonHandler.parseObject(inputStream);
-            }
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
+    private static void checkStatus(HttpResponse<?> response, int expected, String message) {
+        if (response.statusCode() != expected) {
+            throw new UncheckedIOException(new IOException(message));
+        }
+    }
+
+    private static long getWatermark(HttpHeaders headers) {
+        return headers.firstValueAsLong(CHANGE_WATERMARK_HEADER).orElse(0);
+    }
+
+    private static InputStream decode(HttpHeaders headers, InputStream body) throws IOException {
+        var gzip = headers.firstValue("Content-Encoding")
+                .map(GZIP::equalsIgnoreCase)
+                .orElse(false);
+        return gzip ? new GZIPInputStream(body) : body;
+    }
+
+    /**
+     * Waits for the future rethrowing the original runtime exception.
+     */
+    static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
         }
     }
 }
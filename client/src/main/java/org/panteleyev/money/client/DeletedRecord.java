@@ -0,0 +1,16 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import java.util.UUID;
+
+/**
+ * Tombstone of the record deleted on the server.
+ *
+ * @param uuid    record UUID
+ * @param deleted deletion time in milliseconds, informational only, use change ids to synchronize
+ */
+public record DeletedRecord(UUID uuid, long deleted) {
+}
@@ -0,0 +1,59 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores replica snapshot as gzip compressed JSON file. File is replaced atomically, so interrupted save does not
+ * corrupt the previous snapshot.
+ */
+public final class FileReplicaStore implements ReplicaStore {
+    private final Path path;
+    private final JsonHandler<ReplicaSnapshot> jsonHandler = new JsonHandler<>(ReplicaSnapshot.class);
+
+    public FileReplicaStore(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public Optional<ReplicaSnapshot> load() {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try (var inputStream = new GZIPInputStream(Files.newInputStream(path))) {
+            return Optional.of(jsonHandler.jsonToObject(inputStream));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void save(ReplicaSnapshot snapshot) {
+        try {
+            var parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            var temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try {
+                try (var outputStream = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    outputStream.write(jsonHandler.convert(snapshot));
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
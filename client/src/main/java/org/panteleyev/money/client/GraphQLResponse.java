@@ -4,9 +4,7 @@
  */
 package org.panteleyev.money.client;
 
-import org.panteleyev.money.client.dto.MoneyDto;
-
-public record GraphQLResponse<T extends MoneyDto>(
+public record GraphQLResponse<T>(
         String operation,
         T payload
 ) {
@@ -8,7 +8,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
@@ -16,6 +18,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,28 +30,31 @@ final class JsonHandler<T> {
             .addModule(new Jdk8Module())
             .configure(MapperFeature.CAN_OVERRIDE_ACCESS_MODIFIERS, false)
             .build();
+    private final ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
 
-    private final Class<T> objectClass;
+    // Readers bind objects directly from the token stream without intermediate tree
+    private final ObjectReader reader;
+    private final ObjectReader smileReader;
 
     public JsonHandler(Class<T> objectClass) {
-        this.objectClass = objectClass;
+        this.reader = objectMapper.readerFor(objectClass);
+        this.smileReader = smileMapper.readerFor(objectClass);
     }
 
     public T parseObject(InputStream inputStream) {
-        try (var jsonParser = objectMapper.createParser(inputStream)) {
+        try (var jsonParser = reader.createParser(inputStream)) {
             if (jsonParser.nextToken() != JsonToken.START_OBJECT) {
                 throw new IOException("Cannot parse server response");
             }
 
-            var tree = objectMapper.readTree(jsonParser);
-            return objectMapper.convertValue(tree, objectClass);
+            return reader.readValue(jsonParser);
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
         }
     }
 
     public List<T> parseArray(InputStream inputStream) {
-        try (var parser = objectMapper.createParser(inputStream)) {
+        try (var parser = reader.createParser(inputStream)) {
             var result = new ArrayList<T>();
 
             if (parser.nextToken() != JsonToken.START_ARRAY) {
@@ -56,9 +62,7 @@ final class JsonHandler<T> {
             }
 
             while (parser.nextToken() == JsonToken.START_OBJECT) {
-                var tree = objectMapper.readTree(parser);
-                var object = objectMapper.convertValue(tree, objectClass);
-                result.add(object);
+                result.add(reader.readValue(parser));
             }
 
             if (parser.currentToken() != JsonToken.END_ARRAY) {
@@ -72,7 +76,21 @@ final class JsonHandler<T> {
     }
 
     public void parseStream(InputStream inputStream, Consumer<List<T>> listConsumer, int chunkSize) {
-        try (var parser = objectMapper.createParser(inputStream)) {
+        parseStream(inputStream, false, listConsumer, chunkSize);
+    }
+
+    /**
+     * Parses array of objects passing them to the consumer in chunks. Chunks are immutable and are not reused, so
+     * consumer may keep them or pass to another thread.
+     *
+     * @param inputStream  input stream
+     * @param smile        true if stream is encoded as Smile, false for JSON
+     * @param listConsumer chunk consumer
+     * @param chunkSize    chunk size
+     */
+    public void parseStream(InputStream inputStream, boolean smile, Consumer<List<T>> listConsumer, int chunkSize) {
+        var objectReader = smile ? smileReader : reader;
+        try (var parser = objectReader.createParser(inputStream)) {
 
             if (parser.nextToken() != JsonToken.START_ARRAY) {
                 throw new IOException("Stream is not opened properly");
@@ -80,12 +98,10 @@ final class JsonHandler<T> {
 
             var list = new ArrayList<T>(chunkSize);
             while (parser.nextToken() == JsonToken.START_OBJECT) {
-                var tree = objectMapper.readTree(parser);
-                var object = objectMapper.convertValue(tree, objectClass);
-                list.add(object);
+                list.add(objectReader.readValue(parser));
                 if (list.size() == chunkSize) {
-                    listConsumer.accept(list);
-                    list.clear();
+                    listConsumer.accept(Collections.unmodifiableList(list));
+                    list = new ArrayList<>(chunkSize);
                 }
             }
 
@@ -94,7 +110,7 @@ final class JsonHandler<T> {
             }
 
             if (!list.isEmpty()) {
-                listConsumer.accept(list);
+                listConsumer.accept(Collections.unmodifiableList(list));
             }
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
@@ -119,7 +135,7 @@ final class JsonHandler<T> {
 
     public T jsonToObject(InputStream inputStream) {
         try {
-            return objectMapper.readValue(inputStream, objectClass);
+            return reader.readValue(inputStream);
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
         }
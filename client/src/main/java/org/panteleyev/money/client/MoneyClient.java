@@ -9,7 +9,10 @@ import org.panteleyev.money.client.dto.CategoryDto;
 import org.panteleyev.money.client.dto.ContactDto;
 import org.panteleyev.money.client.dto.CurrencyDto;
 import org.panteleyev.money.client.dto.MoneyDto;
+import org.panteleyev.money.client.dto.TransactionConnectionDto;
+import org.panteleyev.money.client.dto.TransactionDto;
 import org.panteleyev.money.client.dto.TransactionModificationResponseDto;
+import org.panteleyev.money.client.dto.TransactionsModificationResponseDto;
 import org.panteleyev.money.client.graphql.GQLAccountListResponse;
 import org.panteleyev.money.client.graphql.GQLAccountResponse;
 import org.panteleyev.money.client.graphql.GQLCategoryListResponse;
@@ -18,28 +21,41 @@ import org.panteleyev.money.client.graphql.GQLContactListResponse;
 import org.panteleyev.money.client.graphql.GQLContactResponse;
 import org.panteleyev.money.client.graphql.GQLCurrencyListResponse;
 import org.panteleyev.money.client.graphql.GQLCurrencyResponse;
+import org.panteleyev.money.client.graphql.GQLDeletedRecordListResponse;
 import org.panteleyev.money.client.graphql.GQLListResponse;
+import org.panteleyev.money.client.graphql.GQLLongResponse;
 import org.panteleyev.money.client.graphql.GQLScalarResponse;
+import org.panteleyev.money.client.graphql.GQLTransactionConnectionResponse;
+import org.panteleyev.money.client.graphql.GQLTransactionListResponse;
 import org.panteleyev.money.client.graphql.GQLTransactionModificationResponse;
+import org.panteleyev.money.client.graphql.GQLTransactionsModificationResponse;
 import org.panteleyev.money.model.Account;
 import org.panteleyev.money.model.Category;
 import org.panteleyev.money.model.Contact;
 import org.panteleyev.money.model.Currency;
 import org.panteleyev.money.model.Icon;
 import org.panteleyev.money.model.MoneyDocument;
+import org.panteleyev.money.model.MoneyRecord;
 import org.panteleyev.money.model.Transaction;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
-public class MoneyClient {
+/**
+ * Money server client. Client owns HTTP client and executor, so it must be closed when no longer needed.
+ */
+public class MoneyClient implements AutoCloseable {
     private static final String CONTEXT_ROOT = "/money";
     private static final String API_ROOT = "/api/1.0.0";
 
@@ -54,6 +70,9 @@ public class MoneyClient {
 
     private static final String API_GRAPHQL = "/graphql";
 
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
     private final Client<Icon> iconClient;
     private final Client<Currency> currencyClient;
     private final Client<Contact> contactClient;
@@ -62,6 +81,7 @@ public class MoneyClient {
     private final Client<Transaction> transactionClient;
     private final Client<MoneyDocument> documentClient;
     private final GraphQLClient graphQLClient;
+    private final Map<Class<? extends MoneyRecord>, Client<? extends MoneyRecord>> clients;
 
     /**
      * Money client builder.
@@ -70,6 +90,10 @@ public class MoneyClient {
         private String serverUrl;
         private int timeout = 10;
         private int streamingChunkSize = 1000;
+        private int streamingQueueDepth = 4;
+        private boolean binaryStreaming = false;
+        private boolean compression = false;
+        private boolean http2 = false;
 
         /**
          * Defines server URL.
@@ -104,34 +128,267 @@ public class MoneyClient {
             return this;
         }
 
+        /**
+         * Defines number of parsed chunks that may wait for the consumer of streaming API calls. Response is parsed
+         * in a separate thread while consumer processes previous chunks. Zero disables pipelining, chunks are parsed
+         * and consumed in the same thread. Default is 4.
+         *
+         * @param streamingQueueDepth queue depth
+         * @return this
+         */
+        public Builder withStreamingQueueDepth(int streamingQueueDepth) {
+            if (streamingQueueDepth < 0) {
+                throw new IllegalArgumentException("Queue depth must be >= 0");
+            }
+            this.streamingQueueDepth = streamingQueueDepth;
+            return this;
+        }
+
+        /**
+         * Defines if streaming API calls request Smile binary encoding instead of JSON. Default is {@code false}.
+         *
+         * @param binaryStreaming true to request Smile encoding
+         * @return this
+         */
+        public Builder withBinaryStreaming(boolean binaryStreaming) {
+            this.binaryStreaming = binaryStreaming;
+            return this;
+        }
+
+        /**
+         * Defines if API calls request gzip compressed responses. Default is {@code false}.
+         *
+         * @param compression true to request compression
+         * @return this
+         */
+        public Builder withCompression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Defines if HTTP/2 is requested. Concurrent asynchronous calls are multiplexed over a single connection if
+         * server supports HTTP/2, otherwise HTTP/1.1 is used. Default is {@code false}.
+         *
+         * @param http2 true to request HTTP/2
+         * @return this
+         */
+        public Builder withHttp2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
         public MoneyClient build() {
             Objects.requireNonNull(serverUrl, "Server URL cannot be null");
-            return new MoneyClient(serverUrl, timeout, streamingChunkSize);
+            return new MoneyClient(serverUrl, timeout, streamingChunkSize, streamingQueueDepth,
+                    binaryStreaming, compression, http2);
         }
     }
 
-    private MoneyClient(String serverUrl, int connectTimeout, int streamingChunkSize) {
+    private MoneyClient(
+            String serverUrl,
+            int connectTimeout,
+            int streamingChunkSize,
+            int streamingQueueDepth,
+            boolean binaryStreaming,
+            boolean compression,
+            boolean http2
+    ) {
         var baseUrl = serverUrl + CONTEXT_ROOT + API_ROOT;
-        var httpClient = HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_1_1)
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
                 .connectTimeout(Duration.ofSeconds(connectTimeout))
+                .executor(executor)
                 .build();
 
         iconClient = new Client<>(URI.create(baseUrl + API_ICONS),
-                httpClient, Icon.class, streamingChunkSize);
+                httpClient, executor, Icon.class, streamingChunkSize, streamingQueueDepth,
+                binaryStreaming, compression);
         currencyClient = new Client<>(URI.create(baseUrl + API_CURRENCIES),
-                httpClient, Currency.class, streamingChunkSize);
+                httpClient, executor, Currency.class, streamingChunkSize, streamingQueueDepth,
+                binaryStreaming, compression);
         contactClient = new Client<>(URI.create(baseUrl + API_CONTACTS),
-                httpClient, Contact.class, streamingChunkSize);
+                httpClient, executor, Contact.class, streamingChunkSize, streamingQueueDepth,
+                binaryStreaming, compression);
         categoryClient = new Client<>(URI.create(baseUrl + API_CATEGORIES),
-                httpClient, Category.class, streamingChunkSize);
+                httpClient, executor, Category.class, streamingChunkSize, streamingQueueDepth,
+                binaryStreaming, compression);
         accountClient = new Client<>(URI.create(baseUrl + API_ACCOUNTS),
-                httpClient, Account.class, streamingChunkSize);
+                httpClient, executor, Account.class, streamingChunkSize, streamingQueueDepth,
+                binaryStreaming, compression);
         transactionClient = new Client<>(URI.create(baseUrl + API_TRANSACTIONS),
-                httpClient, Transaction.class, streamingChunkSize);
+                httpClient, executor, Transaction.class, streamingChunkSize, streamingQueueDepth,
+                binaryStreaming, compression);
         documentClient = new Client<>(URI.create(baseUrl + API_DOCUMENTS),
-                httpClient, MoneyDocument.class, streamingChunkSize);
+                httpClient, executor, MoneyDocument.class, streamingChunkSize, streamingQueueDepth,
+                binaryStreaming, compression);
         graphQLClient = new GraphQLClient(URI.create(serverUrl + CONTEXT_ROOT + API_GRAPHQL), httpClient);
+
+        clients = Map.of(
+                Icon.class, iconClient,
+                Currency.class, currencyClient,
+                Contact.class, contactClient,
+                Category.class, categoryClient,
+                Account.class, accountClient,
+                Transaction.class, transactionClient,
+                MoneyDocument.class, documentClient
+        );
+    }
+
+    /**
+     * Closes HTTP client and executor. Waits for submitted requests and stream consumers to complete.
+     */
+    @Override
+    public void close() {
+        httpClient.close();
+        executor.close();
+    }
+
+    /* Asynchronous API */
+
+    /**
+     * Retrieves all records of the specified type.
+     *
+     * @param recordClass record class
+     * @param <T>         record type
+     * @return records
+     */
+    public <T extends MoneyRecord> CompletableFuture<List<T>> getAllAsync(Class<T> recordClass) {
+        return client(recordClass).getAllAsync();
+    }
+
+    /**
+     * Retrieves records of the specified type changed since the specified change id.
+     *
+     * @param recordClass  record class
+     * @param changedSince watermark returned by the previous request, 0 for all records
+     * @param <T>          record type
+     * @return records and watermark for the next request
+     */
+    public <T extends MoneyRecord> CompletableFuture<Changes<T>> getChangesAsync(
+            Class<T> recordClass,
+            long changedSince
+    ) {
+        return client(recordClass).getChangesAsync(changedSince);
+    }
+
+    /**
+     * Retrieves record by UUID.
+     *
+     * @param recordClass record class
+     * @param uuid        record UUID
+     * @param <T>         record type
+     * @return record or empty value if record is not found
+     */
+    public <T extends MoneyRecord> CompletableFuture<Optional<T>> getAsync(Class<T> recordClass, UUID uuid) {
+        return client(recordClass).getAsync(uuid);
+    }
+
+    /**
+     * Creates or updates record.
+     *
+     * @param record record
+     * @param <T>    record type
+     * @return stored record
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends MoneyRecord> CompletableFuture<T> putAsync(T record) {
+        return client((Class<T>) record.getClass()).putAsync(record);
+    }
+
+    /**
+     * Retrieves all records of the specified type as stream. Chunks are passed to the consumer in a background
+     * thread.
+     *
+     * @param recordClass  record class
+     * @param listConsumer chunk consumer
+     * @param <T>          record type
+     * @return future completed when stream is consumed
+     */
+    public <T extends MoneyRecord> CompletableFuture<Void> consumeStreamAsync(
+            Class<T> recordClass,
+            Consumer<List<T>> listConsumer
+    ) {
+        return client(recordClass).getAllAsStreamAsync(listConsumer);
+    }
+
+    /**
+     * Retrieves records of the specified type changed since the specified change id as stream. Chunks are passed to
+     * the consumer in a background thread.
+     *
+     * @param recordClass  record class
+     * @param changedSince watermark returned by the previous request, 0 for all records
+     * @param listConsumer chunk consumer
+     * @param <T>          record type
+     * @return future completed with watermark for the next request when stream is consumed
+     */
+    public <T extends MoneyRecord> CompletableFuture<Long> consumeStreamAsync(
+            Class<T> recordClass,
+            long changedSince,
+            Consumer<List<T>> listConsumer
+    ) {
+        return client(recordClass).getChangesAsStreamAsync(changedSince, listConsumer);
+    }
+
+    /**
+     * Retrieves transactions deleted since the specified change id.
+     *
+     * @param changedSince watermark returned by the previous request, 0 for all deleted transactions
+     * @return deleted transactions and watermark for the next request
+     */
+    public CompletableFuture<Changes<DeletedRecord>> getDeletedTransactionsAsync(long changedSince) {
+        return transactionClient.getDeletedAsync(changedSince);
+    }
+
+    /**
+     * Retrieves all records of all types concurrently. Transactions are retrieved as a single stream instead of
+     * pages.
+     *
+     * @return all records
+     */
+    public CompletableFuture<MoneyData> loadAll() {
+        var icons = iconClient.getAllAsync();
+        var currencies = currencyClient.getAllAsync();
+        var categories = categoryClient.getAllAsync();
+        var contacts = contactClient.getAllAsync();
+        var accounts = accountClient.getAllAsync();
+        var transactionList = new ArrayList<Transaction>();
+        var transactions = transactionClient.getAllAsStreamAsync(transactionList::addAll)
+                .thenApply(_ -> transactionList);
+        var documents = documentClient.getAllAsync();
+
+        return CompletableFuture.allOf(icons, currencies, categories, contacts, accounts, transactions, documents)
+                .thenApply(_ -> new MoneyData(
+                        icons.join(),
+                        currencies.join(),
+                        categories.join(),
+                        contacts.join(),
+                        accounts.join(),
+                        transactions.join(),
+                        documents.join()
+                ));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends MoneyRecord> Client<T> client(Class<T> recordClass) {
+        var client = clients.get(recordClass);
+        if (client == null) {
+            throw new IllegalArgumentException("Unsupported record class " + recordClass.getName());
+        }
+        return (Client<T>) client;
+    }
+
+    /**
+     * Retrieves records of the specified type changed since the specified change id.
+     *
+     * @param recordClass  record class
+     * @param changedSince watermark returned by the previous request, 0 for all records
+     * @param <T>          record type
+     * @return records and watermark for the next request
+     */
+    public <T extends MoneyRecord> Changes<T> getChanges(Class<T> recordClass, long changedSince) {
+        return client(recordClass).getChanges(changedSince);
     }
 
     /* Icons */
@@ -228,6 +485,14 @@ public class MoneyClient {
         transactionClient.getAllAsStream(listConsumer);
     }
 
+    public long consumeTransactionStream(long changedSince, Consumer<List<Transaction>> listConsumer) {
+        return transactionClient.getChangesAsStream(changedSince, listConsumer);
+    }
+
+    public Changes<DeletedRecord> getDeletedTransactions(long changedSince) {
+        return transactionClient.getDeleted(changedSince);
+    }
+
     public Optional<Transaction> getTransaction(UUID uuid) {
         return transactionClient.get(uuid);
     }
@@ -253,7 +518,7 @@ public class MoneyClient {
         return documentClient.put(document);
     }
 
-    private <T extends MoneyDto, R extends GQLScalarResponse<T>> GraphQLResponse<T> graphQLQuery(
+    private <T, R extends GQLScalarResponse<T>> GraphQLResponse<T> graphQLQuery(
             String query,
             Class<R> responseClass,
             Map<String, Object> variables
@@ -277,6 +542,12 @@ public class MoneyClient {
         );
     }
 
+    // Change
+
+    public GraphQLResponse<Long> changeWatermarkQuery(String query) {
+        return graphQLQuery(query, GQLLongResponse.class, Map.of());
+    }
+
     // Category
 
     public GraphQLResponse<CategoryDto> categoryQuery(String query, Map<String, Object> variables) {
@@ -347,11 +618,33 @@ public class MoneyClient {
 
     // Transaction
 
+    public GraphQLListResponse<TransactionDto> transactionListQuery(String query, Map<String, Object> variables) {
+        return graphQLQueryForList(query, GQLTransactionListResponse.class, variables);
+    }
+
+    public GraphQLResponse<TransactionConnectionDto> transactionConnectionQuery(
+            String query,
+            Map<String, Object> variables
+    ) {
+        return graphQLQuery(query, GQLTransactionConnectionResponse.class, variables);
+    }
+
+    public GraphQLResponse<List<DeletedRecord>> deletedRecordListQuery(String query, Map<String, Object> variables) {
+        return graphQLQuery(query, GQLDeletedRecordListResponse.class, variables);
+    }
+
     public GraphQLResponse<TransactionModificationResponseDto> transactionModificationQuery(
             String query,
             Map<String, Object> variables
     ) {
         return graphQLQuery(query, GQLTransactionModificationResponse.class, variables);
     }
+
+    public GraphQLResponse<TransactionsModificationResponseDto> transactionsModificationQuery(
+            String query,
+            Map<String, Object> variables
+    ) {
+        return graphQLQuery(query, GQLTransactionsModificationResponse.class, variables);
+    }
 }
 
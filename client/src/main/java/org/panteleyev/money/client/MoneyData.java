@@ -0,0 +1,37 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import org.panteleyev.money.model.Account;
+import org.panteleyev.money.model.Category;
+import org.panteleyev.money.model.Contact;
+import org.panteleyev.money.model.Currency;
+import org.panteleyev.money.model.Icon;
+import org.panteleyev.money.model.MoneyDocument;
+import org.panteleyev.money.model.Transaction;
+
+import java.util.List;
+
+/**
+ * All records retrieved from the server by {@link MoneyClient#loadAll()}.
+ *
+ * @param icons        icons
+ * @param currencies   currencies
+ * @param categories   categories
+ * @param contacts     contacts
+ * @param accounts     accounts
+ * @param transactions transactions
+ * @param documents    documents
+ */
+public record MoneyData(
+        List<Icon> icons,
+        List<Currency> currencies,
+        List<Category> categories,
+        List<Contact> contacts,
+        List<Account> accounts,
+        List<Transaction> transactions,
+        List<MoneyDocument> documents
+) {
+}
@@ -0,0 +1,240 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import org.panteleyev.money.model.Account;
+import org.panteleyev.money.model.Category;
+import org.panteleyev.money.model.Contact;
+import org.panteleyev.money.model.Currency;
+import org.panteleyev.money.model.Icon;
+import org.panteleyev.money.model.MoneyDocument;
+import org.panteleyev.money.model.MoneyRecord;
+import org.panteleyev.money.model.Transaction;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.panteleyev.money.client.Client.join;
+
+/**
+ * Local replica of the server data. Reads are served from memory, {@link #sync()} retrieves only records modified
+ * or deleted since the previous synchronization. Optional {@link ReplicaStore} keeps replica between application
+ * runs.
+ * <p>
+ * Each record type has its own watermark, the server change id returned with the previous changes. Server assigns
+ * change ids itself so records stored with any modification time are received.
+ * <p>
+ * Deleted records are removed by tombstone alone. Server drops the tombstone when the record is created again, and
+ * deletions are retrieved before records, so a re-created record is always applied after its deletion.
+ */
+public final class MoneyReplica {
+    private static final class Records<T extends MoneyRecord> {
+        private final Map<UUID, T> records = new ConcurrentHashMap<>();
+        private volatile long watermark = 0;
+
+        void apply(Changes<T> changes) {
+            changes.records().forEach(this::put);
+            watermark = changes.watermark();
+        }
+
+        void restore(Collection<T> restored, long restoredWatermark) {
+            restored.forEach(this::put);
+            watermark = restoredWatermark;
+        }
+
+        void put(T record) {
+            records.put(record.uuid(), record);
+        }
+
+        void remove(Collection<DeletedRecord> deleted) {
+            deleted.forEach(d -> records.remove(d.uuid()));
+        }
+
+        long since() {
+            return watermark;
+        }
+
+        Optional<T> get(UUID uuid) {
+            return Optional.ofNullable(records.get(uuid));
+        }
+
+        List<T> getAll() {
+            return List.copyOf(records.values());
+        }
+    }
+
+    private final MoneyClient client;
+    private final ReplicaStore store;
+
+    private final Records<Icon> icons = new Records<>();
+    private final Records<Currency> currencies = new Records<>();
+    private final Records<Category> categories = new Records<>();
+    private final Records<Contact> contacts = new Records<>();
+    private final Records<Account> accounts = new Records<>();
+    private final Records<Transaction> transactions = new Records<>();
+    private final Records<MoneyDocument> documents = new Records<>();
+    private final Map<Class<? extends MoneyRecord>, Records<? extends MoneyRecord>> recordsByClass = Map.of(
+            Icon.class, icons,
+            Currency.class, currencies,
+            Category.class, categories,
+            Contact.class, contacts,
+            Account.class, accounts,
+            Transaction.class, transactions,
+            MoneyDocument.class, documents
+    );
+
+    private volatile long deletedWatermark = 0;
+
+    /**
+     * Creates in-memory replica.
+     *
+     * @param client money client
+     */
+    public MoneyReplica(MoneyClient client) {
+        this(client, null);
+    }
+
+    /**
+     * Creates replica and restores it from the store if snapshot exists.
+     *
+     * @param client money client
+     * @param store  replica store, null for in-memory replica
+     */
+    public MoneyReplica(MoneyClient client, ReplicaStore store) {
+        this.client = client;
+        this.store = store;
+
+        if (store != null) {
+            store.load().ifPresent(this::restore);
+        }
+    }
+
+    /**
+     * Retrieves changes from the server. Deletions are retrieved first, then all record types are requested
+     * concurrently. Saves replica to the store if it is defined.
+     */
+    public synchronized void sync() {
+        var deleted = client.getDeletedTransactions(deletedWatermark);
+
+        var changedIcons = client.getChangesAsync(Icon.class, icons.since());
+        var changedCurrencies = client.getChangesAsync(Currency.class, currencies.since());
+        var changedCategories = client.getChangesAsync(Category.class, categories.since());
+        var changedContacts = client.getChangesAsync(Contact.class, contacts.since());
+        var changedAccounts = client.getChangesAsync(Account.class, accounts.since());
+        var changedTransactions = client.getChangesAsync(Transaction.class, transactions.since());
+        var changedDocuments = client.getChangesAsync(MoneyDocument.class, documents.since());
+
+        join(CompletableFuture.allOf(changedIcons, changedCurrencies, changedCategories, changedContacts,
+                changedAccounts, changedTransactions, changedDocuments));
+
+        transactions.remove(deleted.records());
+        deletedWatermark = deleted.watermark();
+
+        icons.apply(changedIcons.join());
+        currencies.apply(changedCurrencies.join());
+        categories.apply(changedCategories.join());
+        contacts.apply(changedContacts.join());
+        accounts.apply(changedAccounts.join());
+        transactions.apply(changedTransactions.join());
+        documents.apply(changedDocuments.join());
+
+        if (store != null) {
+            store.save(new ReplicaSnapshot(getData(), getWatermarks(), deletedWatermark));
+        }
+    }
+
+    /**
+     * Creates or updates record on the server and stores the result in the replica.
+     *
+     * @param record record
+     * @param <T>    record type
+     * @return stored record
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends MoneyRecord> T put(T record) {
+        var stored = join(client.putAsync(record));
+        records((Class<T>) stored.getClass()).put(stored);
+        return stored;
+    }
+
+    /**
+     * Returns all records of the specified type.
+     *
+     * @param recordClass record class
+     * @param <T>         record type
+     * @return records
+     */
+    public <T extends MoneyRecord> List<T> getAll(Class<T> recordClass) {
+        return records(recordClass).getAll();
+    }
+
+    /**
+     * Returns record by UUID.
+     *
+     * @param recordClass record class
+     * @param uuid        record UUID
+     * @param <T>         record type
+     * @return record or empty value if record is not found
+     */
+    public <T extends MoneyRecord> Optional<T> get(Class<T> recordClass, UUID uuid) {
+        return records(recordClass).get(uuid);
+    }
+
+    /**
+     * Returns all records.
+     *
+     * @return all records
+     */
+    public MoneyData getData() {
+        return new MoneyData(
+                icons.getAll(),
+                currencies.getAll(),
+                categories.getAll(),
+                contacts.getAll(),
+                accounts.getAll(),
+                transactions.getAll(),
+                documents.getAll()
+        );
+    }
+
+    private void restore(ReplicaSnapshot snapshot) {
+        var data = snapshot.data();
+        var watermarks = snapshot.watermarks();
+        icons.restore(data.icons(), watermarks.getOrDefault(Icon.class.getSimpleName(), 0L));
+        currencies.restore(data.currencies(), watermarks.getOrDefault(Currency.class.getSimpleName(), 0L));
+        categories.restore(data.categories(), watermarks.getOrDefault(Category.class.getSimpleName(), 0L));
+        contacts.restore(data.contacts(), watermarks.getOrDefault(Contact.class.getSimpleName(), 0L));
+        accounts.restore(data.accounts(), watermarks.getOrDefault(Account.class.getSimpleName(), 0L));
+        transactions.restore(data.transactions(), watermarks.getOrDefault(Transaction.class.getSimpleName(), 0L));
+        documents.restore(data.documents(), watermarks.getOrDefault(MoneyDocument.class.getSimpleName(), 0L));
+        deletedWatermark = snapshot.deletedWatermark();
+    }
+
+    private Map<String, Long> getWatermarks() {
+        return Map.of(
+                Icon.class.getSimpleName(), icons.watermark,
+                Currency.class.getSimpleName(), currencies.watermark,
+                Category.class.getSimpleName(), categories.watermark,
+                Contact.class.getSimpleName(), contacts.watermark,
+                Account.class.getSimpleName(), accounts.watermark,
+                Transaction.class.getSimpleName(), transactions.watermark,
+                MoneyDocument.class.getSimpleName(), documents.watermark
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends MoneyRecord> Records<T> records(Class<T> recordClass) {
+        var records = recordsByClass.get(recordClass);
+        if (records == null) {
+            throw new IllegalArgumentException("Unsupported record class " + recordClass.getName());
+        }
+        return (Records<T>) records;
+    }
+}
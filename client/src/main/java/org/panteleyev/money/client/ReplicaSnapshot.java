@@ -0,0 +1,17 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import java.util.Map;
+
+/**
+ * State of the {@link MoneyReplica} saved between application runs.
+ *
+ * @param data             records
+ * @param watermarks       change id watermarks by simple name of the record class
+ * @param deletedWatermark change id watermark of the deleted transactions
+ */
+public record ReplicaSnapshot(MoneyData data, Map<String, Long> watermarks, long deletedWatermark) {
+}
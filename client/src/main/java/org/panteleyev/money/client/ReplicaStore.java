@@ -0,0 +1,26 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import java.util.Optional;
+
+/**
+ * Persistent storage of the {@link MoneyReplica} state.
+ */
+public interface ReplicaStore {
+    /**
+     * Loads the last saved snapshot.
+     *
+     * @return snapshot or empty value if nothing was saved
+     */
+    Optional<ReplicaSnapshot> load();
+
+    /**
+     * Saves snapshot replacing the previous one.
+     *
+     * @param snapshot snapshot
+     */
+    void save(ReplicaSnapshot snapshot);
+}
@@ -0,0 +1,11 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client.dto;
+
+public record PageInfoDto(
+        boolean hasNextPage,
+        String endCursor
+) {
+}
@@ -0,0 +1,13 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client.dto;
+
+import java.util.List;
+
+public record TransactionConnectionDto(
+        List<TransactionEdgeDto> edges,
+        PageInfoDto pageInfo
+) {
+}
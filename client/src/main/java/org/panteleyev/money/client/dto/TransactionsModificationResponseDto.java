@@ -0,0 +1,14 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client.dto;
+
+import java.util.List;
+
+public record TransactionsModificationResponseDto(
+        List<TransactionDto> transactions,
+        List<ContactDto> contacts,
+        List<AccountDto> accounts
+) {
+}
@@ -0,0 +1,16 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client.graphql;
+
+import org.panteleyev.money.client.GraphQLError;
+
+import java.util.List;
+import java.util.Map;
+
+public record GQLLongResponse(
+        Map<String, Long> data,
+        List<GraphQLError> errors
+) implements GQLScalarResponse<Long> {
+}
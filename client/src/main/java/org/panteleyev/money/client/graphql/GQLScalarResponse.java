@@ -5,13 +5,12 @@
 package org.panteleyev.money.client.graphql;
 
 import org.panteleyev.money.client.GraphQLError;
-import org.panteleyev.money.client.dto.MoneyDto;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-public interface GQLScalarResponse<T extends MoneyDto> {
+public interface GQLScalarResponse<T> {
     Map<String, T> data();
     List<GraphQLError> errors();
 
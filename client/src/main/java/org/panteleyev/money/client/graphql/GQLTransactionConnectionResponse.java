@@ -0,0 +1,17 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client.graphql;
+
+import org.panteleyev.money.client.GraphQLError;
+import org.panteleyev.money.client.dto.TransactionConnectionDto;
+
+import java.util.List;
+import java.util.Map;
+
+public record GQLTransactionConnectionResponse(
+        Map<String, TransactionConnectionDto> data,
+        List<GraphQLError> errors
+) implements GQLScalarResponse<TransactionConnectionDto> {
+}
@@ -0,0 +1,17 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client.graphql;
+
+import org.panteleyev.money.client.GraphQLError;
+import org.panteleyev.money.client.dto.TransactionDto;
+
+import java.util.List;
+import java.util.Map;
+
+public record GQLTransactionListResponse(
+        Map<String, List<TransactionDto>> data,
+        List<GraphQLError> errors
+) implements GQLListResponse<TransactionDto> {
+}
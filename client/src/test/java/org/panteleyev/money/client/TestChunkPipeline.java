@@ -0,0 +1,110 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestChunkPipeline {
+    private static final int QUEUE_DEPTH = 2;
+
+    private ExecutorService executor;
+    private final AtomicBoolean producerStopped = new AtomicBoolean(false);
+
+    @BeforeEach
+    public void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        executor.close();
+    }
+
+    @Test
+    public void testAllChunks() {
+        var expected = IntStream.range(0, 10).mapToObj(List::of).toList();
+
+        var result = new ArrayList<List<Integer>>();
+        ChunkPipeline.run(executor, QUEUE_DEPTH, c -> expected.forEach(c), result::add);
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testConsumerFailure() {
+        // Producer waits for the next portion of the response after the first chunk
+        Consumer<Consumer<List<Integer>>> producer = c -> {
+            try {
+                c.accept(List.of(1));
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ex) {
+                throw new CancellationException("Read interrupted");
+            } finally {
+                producerStopped.set(true);
+            }
+        };
+
+        Consumer<List<Integer>> consumer = _ -> {
+            throw new IllegalStateException("Consumer failed");
+        };
+
+        assertThrows(IllegalStateException.class, () -> ChunkPipeline.run(executor, QUEUE_DEPTH, producer, consumer));
+        assertTrue(producerStopped.get());
+    }
+
+    @Test
+    public void testCallerCancel() throws Exception {
+        var consumed = new CountDownLatch(1);
+        var failure = new AtomicReference<Throwable>();
+        var interrupted = new AtomicBoolean(false);
+
+        var caller = Thread.ofVirtual().start(() -> {
+            try {
+                ChunkPipeline.run(executor, QUEUE_DEPTH, this::produceEndlessly, _ -> consumed.countDown());
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+
+        assertTrue(consumed.await(10, TimeUnit.SECONDS));
+        caller.interrupt();
+        assertTrue(caller.join(Duration.ofSeconds(10)));
+
+        assertInstanceOf(CancellationException.class, failure.get());
+        assertTrue(interrupted.get());
+        assertTrue(producerStopped.get());
+    }
+
+    private void produceEndlessly(Consumer<List<Integer>> chunkConsumer) {
+        try {
+            for (int i = 0; ; i++) {
+                chunkConsumer.accept(List.of(i));
+            }
+        } finally {
+            producerStopped.set(true);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.util.TimeZone;
 import static org.panteleyev.fx.BoxFactory.vBox;
 import static org.panteleyev.fx.FxUtils.fxString;
 import static org.panteleyev.fx.LabelFactory.label;
+import static org.panteleyev.money.app.GlobalContext.dao;
 import static org.panteleyev.money.app.GlobalContext.settings;
 import static org.panteleyev.money.app.Styles.BIG_SPACING;
 import static org.panteleyev.money.app.Styles.SMALL_SPACING;
@@ -72,6 +73,13 @@ final class AboutDialog extends BaseDialog<Object> {
                         label("Runtime version: " + RUNTIME),
                         label("VM: " + VM)
                 ),
+                vBox(SMALL_SPACING,
+                        label(dao().getConnectionStatistics()
+                                .map(s -> "Connections: " + s.active() + " active, " + s.idle() + " idle, "
+                                        + "average wait " + s.averageWaitTime().toMillis() + " ms, "
+                                        + "max wait " + s.maxWaitTime().toMillis() + " ms")
+                                .orElse(""))
+                ),
                 vBox(SMALL_SPACING,
                         label("Copyright © 2017-" + LocalDate.now().getYear() + " Petr Panteleyev")
                 )
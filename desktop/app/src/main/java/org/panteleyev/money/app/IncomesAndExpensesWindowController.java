@@ -13,6 +13,7 @@ import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeTableCell;
 import javafx.scene.control.TreeTableView;
 import javafx.scene.layout.BorderPane;
+import org.panteleyev.money.MoneyApplication;
 import org.panteleyev.money.app.dialogs.ReportFileDialog;
 import org.panteleyev.money.app.filters.TransactionFilterBox;
 import org.panteleyev.money.model.Category;
@@ -45,6 +46,7 @@ import static org.panteleyev.fx.MenuFactory.menuItem;
 import static org.panteleyev.fx.TreeTableFactory.treeItem;
 import static org.panteleyev.fx.TreeTableFactory.treeTableColumn;
 import static org.panteleyev.money.app.GlobalContext.cache;
+import static org.panteleyev.money.app.GlobalContext.dao;
 import static org.panteleyev.money.app.GlobalContext.settings;
 import static org.panteleyev.money.app.Styles.BIG_INSETS;
 import static org.panteleyev.money.app.Styles.CREDIT;
@@ -201,6 +203,18 @@ class IncomesAndExpensesWindowController extends BaseController {
     }
 
     private void onRefresh() {
+        // Report is calculated when transactions of the selected period are loaded
+        dao().ensureTransactionsLoaded(filterBox.getFromDate().orElse(null)).handle((_, t) -> {
+            if (t != null) {
+                MoneyApplication.uncaughtException(t.getCause() != null ? t.getCause() : t);
+            } else {
+                refresh();
+            }
+            return null;
+        });
+    }
+
+    private void refresh() {
         expenseRoot.getChildren().clear();
         var expenseSum = calculateTotal(CategoryType.EXPENSES, expenseRoot);
         expenseRoot.setValue(new ExpenseRootNode("Расходы", expenseSum));
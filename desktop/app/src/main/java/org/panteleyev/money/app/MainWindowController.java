@@ -43,6 +43,7 @@ import org.panteleyev.money.app.settings.SettingsDialog;
 import org.panteleyev.money.app.transaction.TransactionTableView;
 import org.panteleyev.money.desktop.export.Export;
 import org.panteleyev.money.desktop.persistence.MoneyDAO;
+import org.panteleyev.money.desktop.persistence.PooledDataSource;
 import org.panteleyev.money.model.Account;
 import org.panteleyev.money.model.Transaction;
 import org.panteleyev.money.model.TransactionDetail;
@@ -302,7 +303,8 @@ public class MainWindowController extends BaseController implements TransactionT
     private void open(ConnectionProfile profile) {
         var ds = onBuildDatasource(profile);
 
-        dao().initialize(ds);
+        dao().initialize(new PooledDataSource(ds, PooledDataSource.Settings.DEFAULT));
+        dao().setTransactionWindow(settings().getTransactionWindow());
 
         var schemaStatus = dao().checkSchemaUpdateStatus();
         switch (schemaStatus) {
@@ -366,7 +368,8 @@ public class MainWindowController extends BaseController implements TransactionT
             progressDialog.disableClose(true);
             progressDialog.append("Экспортируем файл " + selected.getName() + "...\n");
 
-            CompletableFuture.runAsync(() -> {
+            // Export walks the cache, so transactions outside the window must be loaded first
+            dao().ensureTransactionsLoaded(null).thenRunAsync(() -> {
                 try (var outputStream = new FileOutputStream(selected);
                      var bufferedOutputStream = new BufferedOutputStream(outputStream))
                 {
@@ -376,8 +379,12 @@ public class MainWindowController extends BaseController implements TransactionT
                 } catch (IOException ex) {
                     throw new UncheckedIOException(ex);
                 }
-            }).thenRunAsync(() -> {
-                progressDialog.append("Экспорт завершен\n");
+            }).whenCompleteAsync((_, t) -> {
+                if (t != null) {
+                    MoneyApplication.uncaughtException(t.getCause() != null ? t.getCause() : t);
+                } else {
+                    progressDialog.append("Экспорт завершен\n");
+                }
                 progressDialog.disableClose(false);
             }, Platform::runLater);
 
@@ -417,6 +424,8 @@ public class MainWindowController extends BaseController implements TransactionT
         ds.setPassword(profile.dataBasePassword());
         ds.setDatabaseName(profile.databaseName());
         ds.setCurrentSchema(profile.schema());
+        // Server side prepared statements are cached by the driver per connection
+        ds.setPrepareThreshold(1);
         return ds;
     }
 
@@ -472,6 +481,12 @@ public class MainWindowController extends BaseController implements TransactionT
         int month = monthFilterBox.getSelectionModel().getSelectedIndex() + 1;
         int year = yearSpinner.getValue();
 
+        // Older transactions are added to the cache when loaded and appear in the table
+        dao().ensureTransactionsLoaded(LocalDate.of(year, month, 1)).exceptionally(t -> {
+            MoneyApplication.uncaughtException(t.getCause() != null ? t.getCause() : t);
+            return null;
+        });
+
         Predicate<Transaction> filter = t -> t.transactionDate().getMonthValue() == month
                 && t.transactionDate().getYear() == year;
 //            && t.getParentId() == 0;
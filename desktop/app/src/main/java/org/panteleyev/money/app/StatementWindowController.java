@@ -22,6 +22,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import org.panteleyev.fx.TableColumnBuilder;
+import org.panteleyev.money.MoneyApplication;
 import org.panteleyev.money.app.cells.LocalDateCell;
 import org.panteleyev.money.app.cells.StatementRow;
 import org.panteleyev.money.app.cells.StatementSumCell;
@@ -45,7 +46,9 @@ import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.controlsfx.control.action.ActionUtils.createMenuItem;
 import static org.panteleyev.fx.BoxFactory.hBox;
@@ -66,6 +69,9 @@ import static org.panteleyev.money.app.Shortcuts.SHORTCUT_U;
 import static org.panteleyev.money.app.Styles.BIG_INSETS;
 
 public class StatementWindowController extends BaseController {
+    // Statement date of a transaction may be later than its transaction date
+    private static final int STATEMENT_DATE_MARGIN_MONTHS = 1;
+
     private final TableView<StatementRecord> statementTable = createStatementTable();
     private final TransactionTableView transactionTable
             = new TransactionTableView(this, TransactionTableView.Mode.STATEMENT);
@@ -248,6 +254,19 @@ public class StatementWindowController extends BaseController {
             return;
         }
 
+        // Statement may be older than the loaded transactions, records are matched when they are loaded
+        var current = statement;
+        dao().ensureTransactionsLoaded(getLoadFrom(current)).handle((_, t) -> {
+            if (t != null) {
+                MoneyApplication.uncaughtException(t.getCause() != null ? t.getCause() : t);
+            } else if (current == statement) {
+                calculateTransactions(current, account);
+            }
+            return null;
+        });
+    }
+
+    private void calculateTransactions(Statement statement, Account account) {
         for (var record : statement.records()) {
             record.setTransactions(cache().getTransactions().stream()
                     .filter(new StatementPredicate(account, record, ignoreExecutionDate.isSelected()))
@@ -266,6 +285,15 @@ public class StatementWindowController extends BaseController {
         });
     }
 
+    private static LocalDate getLoadFrom(Statement statement) {
+        return statement.records().stream()
+                .flatMap(record -> Stream.of(record.getActual(), record.getExecution()))
+                .filter(Objects::nonNull)
+                .min(LocalDate::compareTo)
+                .map(date -> date.minusMonths(STATEMENT_DATE_MARGIN_MONTHS))
+                .orElseGet(LocalDate::now);
+    }
+
     private void onReport() {
         new ReportFileDialog().show(getStage(), ReportType.STATEMENT).ifPresent(selected -> {
             try (var outputStream = new FileOutputStream(selected)) {
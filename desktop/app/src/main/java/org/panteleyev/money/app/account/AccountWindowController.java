@@ -23,6 +23,7 @@ import javafx.scene.input.ClipboardContent;
 import javafx.scene.layout.BorderPane;
 import org.controlsfx.control.action.Action;
 import org.panteleyev.fx.PredicateProperty;
+import org.panteleyev.money.MoneyApplication;
 import org.panteleyev.money.app.BaseController;
 import org.panteleyev.money.app.Comparators;
 import org.panteleyev.money.app.ReportType;
@@ -260,7 +261,7 @@ public final class AccountWindowController extends BaseController {
     }
 
     private void onDeleteAccount(ActionEvent ignored) {
-        getSelectedAccount().ifPresent(account -> {
+        getSelectedAccount().ifPresent(account -> whenAllTransactionsLoaded(() -> {
             long count = cache().getTransactionCount(account);
             if (count != 0L) {
                 new Alert(Alert.AlertType.ERROR,
@@ -273,7 +274,7 @@ public final class AccountWindowController extends BaseController {
                         .filter(response -> response == ButtonType.OK)
                         .ifPresent(_ -> dao().deleteAccount(account));
             }
-        });
+        }));
     }
 
     private void onActivateDeactivateAccount() {
@@ -312,10 +313,24 @@ public final class AccountWindowController extends BaseController {
     }
 
     private void onUpdateBalance(ActionEvent ignored) {
-        tableView.getItems().forEach(account -> {
+        whenAllTransactionsLoaded(() -> tableView.getItems().forEach(account -> {
             var total = cache().calculateBalance(account, false, _ -> true);
             var waiting = cache().calculateBalance(account, false, t -> !t.checked());
             dao().updateAccount(account.updateBalance(total, waiting));
+        }));
+    }
+
+    /**
+     * Loads all transactions in background and runs the action in the application thread.
+     */
+    private static void whenAllTransactionsLoaded(Runnable action) {
+        dao().ensureTransactionsLoaded(null).handle((_, t) -> {
+            if (t != null) {
+                MoneyApplication.uncaughtException(t.getCause() != null ? t.getCause() : t);
+            } else {
+                action.run();
+            }
+            return null;
         });
     }
 
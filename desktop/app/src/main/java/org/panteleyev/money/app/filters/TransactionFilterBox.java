@@ -15,13 +15,16 @@ import javafx.scene.control.Separator;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.layout.HBox;
 import org.panteleyev.fx.PredicateProperty;
+import org.panteleyev.money.MoneyApplication;
 import org.panteleyev.money.app.transaction.TransactionPredicate;
 import org.panteleyev.money.model.Transaction;
 
 import java.time.LocalDate;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import static org.panteleyev.money.app.GlobalContext.cache;
+import static org.panteleyev.money.app.GlobalContext.dao;
 import static org.panteleyev.money.app.transaction.TransactionPredicate.transactionByDates;
 import static org.panteleyev.money.app.transaction.TransactionPredicate.transactionByYear;
 
@@ -38,8 +41,7 @@ public class TransactionFilterBox extends HBox {
     private final PredicateProperty<Transaction> predicateProperty =
             new PredicateProperty<>(TransactionPredicate.CURRENT_MONTH);
 
-    private final EventHandler<ActionEvent> updateHandler =
-            _ -> predicateProperty.set(getTransactionFilter());
+    private final EventHandler<ActionEvent> updateHandler = _ -> updatePredicate();
 
     public TransactionFilterBox() {
         this(false, false);
@@ -137,9 +139,38 @@ public class TransactionFilterBox extends HBox {
         }
     }
 
+    /**
+     * Returns the earliest date of transactions matching current filter.
+     *
+     * @return date or empty if filter is not limited
+     */
+    public Optional<LocalDate> getFromDate() {
+        if (periodRadio.isSelected()) {
+            var selected = filterChoice.getSelectionModel().getSelectedItem();
+            if (selected instanceof TransactionPredicate transactionPredicate) {
+                return transactionPredicate.getFromDate();
+            } else if (selected instanceof Integer year) {
+                return Optional.of(LocalDate.of(year, 1, 1));
+            } else {
+                return Optional.empty();
+            }
+        } else {
+            return Optional.ofNullable(fromPicker.getValue());
+        }
+    }
+
     public void setTransactionFilter(TransactionPredicate filter) {
         periodRadio.setSelected(true);
         filterChoice.getSelectionModel().select(filter);
+        updatePredicate();
+    }
+
+    private void updatePredicate() {
+        // Older transactions are added to the cache when loaded and appear in the filtered list
+        dao().ensureTransactionsLoaded(getFromDate().orElse(null)).exceptionally(t -> {
+            MoneyApplication.uncaughtException(t.getCause() != null ? t.getCause() : t);
+            return null;
+        });
         predicateProperty.set(getTransactionFilter());
     }
 
@@ -24,6 +24,7 @@ final class GeneralSettings {
         AUTO_COMPLETE_LENGTH("autoCompleteLength", 3),
         ACCOUNT_CLOSING_DAY_DELTA("accountClosingDayDelta", 10),
         PERIODIC_PAYMENT_DAY_DELTA("periodicPaymentDayDelta", 5),
+        TRANSACTION_WINDOW("transactionWindow", 0),
         SHOW_DEACTIVATED_ACCOUNTS("showDeactivatedAccounts", false),
         SHOW_DEACTIVATED_CARDS("showDeactivatedCards", false),
         LAST_STATEMENT_DIR("lastStatementDir", ""),
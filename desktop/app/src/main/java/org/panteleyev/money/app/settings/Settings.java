@@ -106,6 +106,14 @@ public final class Settings {
         generalSettings.put(GeneralSettings.Setting.SHOW_DEACTIVATED_CARDS, show);
     }
 
+    public int getTransactionWindow() {
+        return generalSettings.get(GeneralSettings.Setting.TRANSACTION_WINDOW);
+    }
+
+    public void setTransactionWindow(int months) {
+        generalSettings.put(GeneralSettings.Setting.TRANSACTION_WINDOW, months);
+    }
+
     public int getAutoCompleteLength() {
         return generalSettings.get(GeneralSettings.Setting.AUTO_COMPLETE_LENGTH);
     }
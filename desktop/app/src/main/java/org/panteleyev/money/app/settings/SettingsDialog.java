@@ -62,6 +62,8 @@ public class SettingsDialog extends BaseDialog<ButtonType> {
     private final ChoiceBox<Integer> autoCompleteLength = new ChoiceBox<>(observableArrayList(2, 3, 4, 5));
     private final TextField accountClosingDayDeltaEdit = new TextField();
     private final TextField periodicPaymentDayDeltaEdit = new TextField();
+    private final ChoiceBox<Integer> transactionWindow =
+            new ChoiceBox<>(observableArrayList(0, 3, 6, 12, 24, 36, 60));
 
     private final TextField controlsFontField = new TextField();
     private final TextField menuFontField = new TextField();
@@ -107,7 +109,8 @@ public class SettingsDialog extends BaseDialog<ButtonType> {
                         List.of(
                                 gridRow(label("Длина префикса автодополнения:"), autoCompleteLength),
                                 gridRow(label("Дней до закрытия счета:"), accountClosingDayDeltaEdit),
-                                gridRow(label("Дней до периодического платежа:"), periodicPaymentDayDeltaEdit)
+                                gridRow(label("Дней до периодического платежа:"), periodicPaymentDayDeltaEdit),
+                                gridRow(label("Загружать проводки за последние месяцы (0 - все):"), transactionWindow)
                         ), b -> b.withStyle(GRID_PANE))
                 ),
                 tab("Шрифты", false,
@@ -166,6 +169,7 @@ public class SettingsDialog extends BaseDialog<ButtonType> {
         autoCompleteLength.getSelectionModel().select(Integer.valueOf(settings.getAutoCompleteLength()));
         accountClosingDayDeltaEdit.setText(Integer.toString(settings.getAccountClosingDayDelta()));
         periodicPaymentDayDeltaEdit.setText(Integer.toString(settings.getPeriodicPaymentDayDelta()));
+        transactionWindow.getSelectionModel().select(Integer.valueOf(settings.getTransactionWindow()));
 
         setResultConverter((ButtonType param) -> {
             if (param == ButtonType.OK) {
@@ -173,6 +177,7 @@ public class SettingsDialog extends BaseDialog<ButtonType> {
                     opt.setAutoCompleteLength(autoCompleteLength.getValue());
                     opt.setAccountClosingDayDelta(Integer.parseInt(accountClosingDayDeltaEdit.getText()));
                     opt.setPeriodicPaymentDayDelta(Integer.parseInt(periodicPaymentDayDeltaEdit.getText()));
+                    opt.setTransactionWindow(transactionWindow.getValue());
                     // Fonts
                     opt.setFont(CONTROLS_FONT, (Font) controlsFontField.getUserData());
                     opt.setFont(MENU_FONT, (Font) menuFontField.getUserData());
@@ -12,6 +12,7 @@ import java.time.Month;
 import java.time.format.TextStyle;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Predicate;
 
@@ -88,6 +89,25 @@ public enum TransactionPredicate implements Predicate<Transaction> {
         return description;
     }
 
+    /**
+     * Returns the earliest date of transactions matching this predicate.
+     *
+     * @return date or empty if predicate is not limited
+     */
+    public Optional<LocalDate> getFromDate() {
+        var now = LocalDate.now();
+        return Optional.ofNullable(switch (this) {
+            case ALL -> null;
+            case CURRENT_YEAR -> now.withDayOfYear(1);
+            case CURRENT_MONTH -> now.withDayOfMonth(1);
+            case CURRENT_WEEK -> now.minusDays(now.getDayOfWeek().getValue() - 1);
+            case LAST_YEAR -> now.minusYears(1);
+            case LAST_QUARTER -> now.minusMonths(3);
+            case LAST_MONTH -> now.minusMonths(1);
+            default -> LocalDate.of(now.getYear(), ordinal() - JANUARY.ordinal() + 1, 1);
+        });
+    }
+
     public static Predicate<Transaction> transactionByAccount(UUID uuid) {
         return it -> Objects.equals(it.accountDebitedUuid(), uuid)
                 || Objects.equals(it.accountCreditedUuid(), uuid);
@@ -22,6 +22,7 @@ import org.panteleyev.money.model.exchange.ExchangeSecuritySplit;
 import org.panteleyev.money.model.investment.InvestmentDeal;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
@@ -47,6 +48,22 @@ public class DataCache {
     private final ObservableList<InvestmentDeal> investmentDeals = FXCollections.observableArrayList();
     private final ObservableList<ExchangeSecuritySplit> exchangeSecuritySplits = FXCollections.observableArrayList();
 
+    // Indexes
+    private final RecordIndex<Icon> iconIndex = new RecordIndex<>(icons);
+    private final RecordIndex<MoneyDocument> documentIndex = new RecordIndex<>(documents);
+    private final RecordIndex<Category> categoryIndex = new RecordIndex<>(categories);
+    private final RecordIndex<Contact> contactIndex = new RecordIndex<>(contacts);
+    private final RecordIndex<Currency> currencyIndex = new RecordIndex<>(currencies);
+    private final RecordIndex<Account> accountIndex = new RecordIndex<>(accounts);
+    private final RecordIndex<Transaction> transactionIndex = new RecordIndex<>(transactions);
+    private final RecordIndex<PeriodicPayment> periodicPaymentIndex = new RecordIndex<>(periodicPayments);
+    private final RecordIndex<ExchangeSecurity> exchangeSecurityIndex = new RecordIndex<>(exchangeSecurities);
+    private final RecordIndex<Card> cardIndex = new RecordIndex<>(cards);
+    private final RecordIndex<InvestmentDeal> investmentDealIndex = new RecordIndex<>(investmentDeals);
+    private final RecordIndex<ExchangeSecuritySplit> exchangeSecuritySplitIndex =
+            new RecordIndex<>(exchangeSecuritySplits);
+    private final TransactionIndex transactionSecondaryIndex = new TransactionIndex(transactions);
+
     public void clear() {
         icons.clear();
         documents.clear();
@@ -70,22 +87,17 @@ public class DataCache {
         return collection.stream().filter(r -> r.uuid().equals(uuid)).findAny();
     }
 
-    private static <T extends MoneyRecord> void updateRecord(List<T> list, T record) {
-        for (int i = 0; i < list.size(); i++) {
-            if (list.get(i).uuid().equals(record.uuid())) {
-                list.set(i, record);
-                break;
-            }
+    private static <T extends MoneyRecord> void updateRecord(List<T> list, RecordIndex<T> index, T record) {
+        var position = index.indexOf(record.uuid());
+        if (position >= 0) {
+            list.set(position, record);
         }
     }
 
-    private static <T extends MoneyRecord> void removeRecord(Collection<T> collection, UUID uuid) {
-        for (var iterator = collection.iterator(); iterator.hasNext(); ) {
-            var record = iterator.next();
-            if (record.uuid().equals(uuid)) {
-                iterator.remove();
-                return;
-            }
+    private static <T extends MoneyRecord> void removeRecord(List<T> list, RecordIndex<T> index, UUID uuid) {
+        var position = index.indexOf(uuid);
+        if (position >= 0) {
+            list.remove(position);
         }
     }
 
@@ -94,7 +106,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<Icon> getIcon(UUID uuid) {
-        return getRecord(icons, uuid);
+        return iconIndex.get(uuid);
     }
 
     public ObservableList<Icon> getIcons() {
@@ -106,7 +118,7 @@ public class DataCache {
     }
 
     public void update(Icon icon) {
-        updateRecord(icons, icon);
+        updateRecord(icons, iconIndex, icon);
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -114,7 +126,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<MoneyDocument> getDocument(UUID uuid) {
-        return getRecord(documents, uuid);
+        return documentIndex.get(uuid);
     }
 
     public ObservableList<MoneyDocument> getDocuments() {
@@ -126,11 +138,11 @@ public class DataCache {
     }
 
     public void update(MoneyDocument document) {
-        updateRecord(documents, document);
+        updateRecord(documents, documentIndex, document);
     }
 
     public void remove(MoneyDocument document) {
-        removeRecord(documents, document.uuid());
+        removeRecord(documents, documentIndex, document.uuid());
     }
 
     public long getDocumentCount(MoneyRecord owner) {
@@ -151,7 +163,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<Category> getCategory(UUID uuid) {
-        return getRecord(categories, uuid);
+        return categoryIndex.get(uuid);
     }
 
     public ObservableList<Category> getCategories() {
@@ -177,7 +189,7 @@ public class DataCache {
     }
 
     public void update(Category category) {
-        updateRecord(categories, category);
+        updateRecord(categories, categoryIndex, category);
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -185,7 +197,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<Currency> getCurrency(UUID uuid) {
-        return getRecord(currencies, uuid);
+        return currencyIndex.get(uuid);
     }
 
     public ObservableList<Currency> getCurrencies() {
@@ -201,11 +213,11 @@ public class DataCache {
     }
 
     public void update(Currency currency) {
-        updateRecord(currencies, currency);
+        updateRecord(currencies, currencyIndex, currency);
     }
 
     public void remove(Currency currency) {
-        removeRecord(currencies, currency.uuid());
+        removeRecord(currencies, currencyIndex, currency.uuid());
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -213,7 +225,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<Contact> getContact(UUID uuid) {
-        return getRecord(contacts, uuid);
+        return contactIndex.get(uuid);
     }
 
     public ObservableList<Contact> getContacts() {
@@ -225,7 +237,7 @@ public class DataCache {
     }
 
     public void update(Contact contact) {
-        updateRecord(contacts, contact);
+        updateRecord(contacts, contactIndex, contact);
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -233,7 +245,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<Account> getAccount(UUID uuid) {
-        return getRecord(accounts, uuid);
+        return accountIndex.get(uuid);
     }
 
     public ObservableList<Account> getAccounts() {
@@ -268,11 +280,11 @@ public class DataCache {
     }
 
     public void update(Account account) {
-        updateRecord(accounts, account);
+        updateRecord(accounts, accountIndex, account);
     }
 
     public void remove(Account account) {
-        removeRecord(accounts, account.uuid());
+        removeRecord(accounts, accountIndex, account.uuid());
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -280,7 +292,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<Transaction> getTransaction(UUID uuid) {
-        return getRecord(transactions, uuid);
+        return transactionIndex.get(uuid);
     }
 
     public ObservableList<Transaction> getTransactions() {
@@ -288,34 +300,23 @@ public class DataCache {
     }
 
     public List<Transaction> getTransactions(Collection<Account> accounts) {
-        var ids = accounts.stream()
-                .map(Account::uuid)
-                .toList();
-
-        return getTransactions().stream()
-                .filter(tr -> ids.contains(tr.accountDebitedUuid()) || ids.contains(tr.accountCreditedUuid()))
-                .toList();
+        return transactionSecondaryIndex.getByAccounts(
+                accounts.stream()
+                        .map(Account::uuid)
+                        .toList()
+        );
     }
 
     public List<Transaction> getTransactionDetails(Transaction parent) {
-        return getTransactions().stream()
-                .filter(t -> Objects.equals(t.parentUuid(), parent.uuid()))
-                .toList();
+        return transactionSecondaryIndex.getByParent(parent.uuid());
     }
 
     public List<Transaction> getTransactions(int month, int year) {
-        return getTransactions().stream()
-                .filter(tr -> tr.transactionDate().getMonthValue() == month
-                        && tr.transactionDate().getYear() == year)
-                .toList();
+        return transactionSecondaryIndex.getByMonth(YearMonth.of(year, month));
     }
 
     public List<Transaction> getTransactions(Account account) {
-        var uuid = account.uuid();
-        return getTransactions().stream()
-                .filter(tr -> Objects.equals(tr.accountDebitedUuid(), uuid)
-                        || Objects.equals(tr.accountCreditedUuid(), uuid))
-                .toList();
+        return transactionSecondaryIndex.getByAccount(account.uuid());
     }
 
     public Set<String> getUniqueTransactionComments() {
@@ -326,12 +327,7 @@ public class DataCache {
     }
 
     public long getTransactionCount(Account account) {
-        var uuid = account.uuid();
-
-        return getTransactions().stream()
-                .filter(tr -> Objects.equals(tr.accountDebitedUuid(), uuid)
-                        || Objects.equals(tr.accountCreditedUuid(), uuid))
-                .count();
+        return transactionSecondaryIndex.countByAccount(account.uuid());
     }
 
     public Stream<Transaction> getTransactions(Predicate<Transaction> filter) {
@@ -343,11 +339,11 @@ public class DataCache {
     }
 
     public void update(Transaction transaction) {
-        updateRecord(transactions, transaction);
+        updateRecord(transactions, transactionIndex, transaction);
     }
 
     public void remove(Transaction transaction) {
-        removeRecord(transactions, transaction.uuid());
+        removeRecord(transactions, transactionIndex, transaction.uuid());
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -355,7 +351,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<PeriodicPayment> getPeriodicPayment(UUID uuid) {
-        return getRecord(periodicPayments, uuid);
+        return periodicPaymentIndex.get(uuid);
     }
 
     public ObservableList<PeriodicPayment> getPeriodicPayments() {
@@ -367,11 +363,11 @@ public class DataCache {
     }
 
     public void update(PeriodicPayment periodicPayment) {
-        updateRecord(periodicPayments, periodicPayment);
+        updateRecord(periodicPayments, periodicPaymentIndex, periodicPayment);
     }
 
     public void remove(PeriodicPayment periodicPayment) {
-        removeRecord(periodicPayments, periodicPayment.uuid());
+        removeRecord(periodicPayments, periodicPaymentIndex, periodicPayment.uuid());
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -379,7 +375,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<ExchangeSecurity> getExchangeSecurity(UUID uuid) {
-        return getRecord(exchangeSecurities, uuid);
+        return exchangeSecurityIndex.get(uuid);
     }
 
     public ObservableList<ExchangeSecurity> getExchangeSecurities() {
@@ -391,11 +387,11 @@ public class DataCache {
     }
 
     public void update(ExchangeSecurity exchangeSecurity) {
-        updateRecord(exchangeSecurities, exchangeSecurity);
+        updateRecord(exchangeSecurities, exchangeSecurityIndex, exchangeSecurity);
     }
 
     public void remove(ExchangeSecurity exchangeSecurity) {
-        removeRecord(exchangeSecurities, exchangeSecurity.uuid());
+        removeRecord(exchangeSecurities, exchangeSecurityIndex, exchangeSecurity.uuid());
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -403,7 +399,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<Card> getCard(UUID uuid) {
-        return getRecord(cards, uuid);
+        return cardIndex.get(uuid);
     }
 
     public ObservableList<Card> getCards() {
@@ -416,11 +412,11 @@ public class DataCache {
     }
 
     public void update(Card card) {
-        updateRecord(cards, card);
+        updateRecord(cards, cardIndex, card);
     }
 
     public void remove(Card card) {
-        removeRecord(cards, card.uuid());
+        removeRecord(cards, cardIndex, card.uuid());
     }
 
     public List<Card> getCardsByAccount(Account account) {
@@ -435,7 +431,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<InvestmentDeal> getInvestment(UUID uuid) {
-        return getRecord(investmentDeals, uuid);
+        return investmentDealIndex.get(uuid);
     }
 
     public ObservableList<InvestmentDeal> getInvestmentDeals() {
@@ -447,7 +443,7 @@ public class DataCache {
     ////////////////////////////////////////////////////////////////////////////
 
     public Optional<ExchangeSecuritySplit> getExchangeSecuritySplit(UUID uuid) {
-        return getRecord(exchangeSecuritySplits, uuid);
+        return exchangeSecuritySplitIndex.get(uuid);
     }
 
     public ObservableList<ExchangeSecuritySplit> getExchangeSecuritySplits() {
@@ -459,11 +455,11 @@ public class DataCache {
     }
 
     public void update(ExchangeSecuritySplit split) {
-        updateRecord(exchangeSecuritySplits, split);
+        updateRecord(exchangeSecuritySplits, exchangeSecuritySplitIndex, split);
     }
 
     public void remove(ExchangeSecuritySplit split) {
-        removeRecord(exchangeSecuritySplits, split.uuid());
+        removeRecord(exchangeSecuritySplits, exchangeSecuritySplitIndex, split.uuid());
     }
 
     /**
@@ -0,0 +1,97 @@
+/*
+ Copyright © 2024 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.desktop.commons;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.panteleyev.money.model.MoneyRecord;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * UUID index of the observable list of records. Index is maintained by the list listener, thus all modifications
+ * of the list including {@code setAll()} are reflected.
+ * <p>
+ * Positions of records inside the list are remembered when records are added and verified on read. Structural
+ * modifications in the middle of the list (insert, remove, permutation) cause single rebuild of positions on the next
+ * lookup.
+ *
+ * @param <T> record type
+ */
+final class RecordIndex<T extends MoneyRecord> {
+    private final ObservableList<T> list;
+    private final Map<UUID, T> records = new HashMap<>();
+    private final Map<UUID, Integer> positions = new HashMap<>();
+
+    RecordIndex(ObservableList<T> list) {
+        this.list = list;
+        for (int i = 0; i < list.size(); i++) {
+            var record = list.get(i);
+            records.put(record.uuid(), record);
+            positions.put(record.uuid(), i);
+        }
+        list.addListener(this::onChanged);
+    }
+
+    Optional<T> get(UUID uuid) {
+        return uuid == null ? Optional.empty() : Optional.ofNullable(records.get(uuid));
+    }
+
+    boolean contains(UUID uuid) {
+        return uuid != null && records.containsKey(uuid);
+    }
+
+    /**
+     * Returns position of the record with specified UUID.
+     *
+     * @param uuid record UUID
+     * @return position or -1 if there is no such record
+     */
+    int indexOf(UUID uuid) {
+        if (!contains(uuid)) {
+            return -1;
+        }
+
+        var position = positions.get(uuid);
+        if (position != null && position < list.size() && list.get(position).uuid().equals(uuid)) {
+            return position;
+        }
+
+        rebuildPositions();
+        return positions.getOrDefault(uuid, -1);
+    }
+
+    private void rebuildPositions() {
+        positions.clear();
+        for (int i = 0; i < list.size(); i++) {
+            positions.put(list.get(i).uuid(), i);
+        }
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends T> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                // Positions will be fixed on the next lookup
+                continue;
+            }
+
+            for (var removed : change.getRemoved()) {
+                records.remove(removed.uuid());
+                positions.remove(removed.uuid());
+            }
+
+            var from = change.getFrom();
+            var added = change.getAddedSubList();
+            for (int i = 0; i < added.size(); i++) {
+                var record = added.get(i);
+                records.put(record.uuid(), record);
+                positions.put(record.uuid(), from + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ Copyright © 2024 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.desktop.commons;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.panteleyev.money.model.Transaction;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Secondary indexes of the transaction list: by account, by parent transaction and by month. Indexes are maintained
+ * incrementally by the list listener. Updated transactions keep their position inside each index bucket.
+ */
+final class TransactionIndex {
+    private final Map<UUID, Map<UUID, Transaction>> byAccount = new HashMap<>();
+    private final Map<UUID, Map<UUID, Transaction>> byParent = new HashMap<>();
+    private final Map<YearMonth, Map<UUID, Transaction>> byMonth = new HashMap<>();
+
+    TransactionIndex(ObservableList<Transaction> transactions) {
+        transactions.forEach(this::add);
+        transactions.addListener(this::onChanged);
+    }
+
+    List<Transaction> getByAccount(UUID accountUuid) {
+        return values(byAccount, accountUuid);
+    }
+
+    List<Transaction> getByAccounts(Collection<UUID> accountUuids) {
+        var result = new LinkedHashMap<UUID, Transaction>();
+        for (var uuid : accountUuids) {
+            var bucket = byAccount.get(uuid);
+            if (bucket != null) {
+                result.putAll(bucket);
+            }
+        }
+        return List.copyOf(result.values());
+    }
+
+    int countByAccount(UUID accountUuid) {
+        var bucket = byAccount.get(accountUuid);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    List<Transaction> getByParent(UUID parentUuid) {
+        return values(byParent, parentUuid);
+    }
+
+    List<Transaction> getByMonth(YearMonth month) {
+        return values(byMonth, month);
+    }
+
+    private static <K> List<Transaction> values(Map<K, Map<UUID, Transaction>> index, K key) {
+        var bucket = index.get(key);
+        return bucket == null ? List.of() : List.copyOf(bucket.values());
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends Transaction> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+
+            var added = new HashMap<UUID, Transaction>();
+            for (var t : change.getAddedSubList()) {
+                added.put(t.uuid(), t);
+            }
+
+            for (var t : change.getRemoved()) {
+                remove(t, added.get(t.uuid()));
+            }
+            for (var t : change.getAddedSubList()) {
+                add(t);
+            }
+        }
+    }
+
+    private void add(Transaction t) {
+        put(byAccount, t.accountDebitedUuid(), t);
+        put(byAccount, t.accountCreditedUuid(), t);
+        put(byParent, t.parentUuid(), t);
+        put(byMonth, YearMonth.from(t.transactionDate()), t);
+    }
+
+    /**
+     * Removes transaction from all indexes. If transaction is being replaced with the updated version then buckets
+     * that will receive the replacement are skipped so the transaction keeps its position inside them.
+     *
+     * @param t           removed transaction
+     * @param replacement replacement transaction or {@code null}
+     */
+    private void remove(Transaction t, Transaction replacement) {
+        if (replacement == null
+                || !Objects.equals(t.accountDebitedUuid(), replacement.accountDebitedUuid())
+                && !Objects.equals(t.accountDebitedUuid(), replacement.accountCreditedUuid()))
+        {
+            delete(byAccount, t.accountDebitedUuid(), t);
+        }
+        if (replacement == null
+                || !Objects.equals(t.accountCreditedUuid(), replacement.accountDebitedUuid())
+                && !Objects.equals(t.accountCreditedUuid(), replacement.accountCreditedUuid()))
+        {
+            delete(byAccount, t.accountCreditedUuid(), t);
+        }
+        if (replacement == null || !Objects.equals(t.parentUuid(), replacement.parentUuid())) {
+            delete(byParent, t.parentUuid(), t);
+        }
+        var month = YearMonth.from(t.transactionDate());
+        if (replacement == null || !month.equals(YearMonth.from(replacement.transactionDate()))) {
+            delete(byMonth, month, t);
+        }
+    }
+
+    private static <K> void put(Map<K, Map<UUID, Transaction>> index, K key, Transaction t) {
+        if (key != null) {
+            index.computeIfAbsent(key, _ -> new LinkedHashMap<>()).put(t.uuid(), t);
+        }
+    }
+
+    private static <K> void delete(Map<K, Map<UUID, Transaction>> index, K key, Transaction t) {
+        if (key == null) {
+            return;
+        }
+        var bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(t.uuid());
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ Copyright © 2024 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.desktop.commons;
+
+import org.junit.jupiter.api.Test;
+import org.panteleyev.money.model.Account;
+import org.panteleyev.money.model.CategoryType;
+import org.panteleyev.money.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataCacheTest {
+    private static final UUID DEBITED = UUID.randomUUID();
+    private static final UUID CREDITED = UUID.randomUUID();
+    private static final UUID CATEGORY = UUID.randomUUID();
+
+    static Transaction newTransaction(BigDecimal amount, LocalDate date) {
+        return new Transaction.Builder()
+                .uuid(UUID.randomUUID())
+                .amount(amount)
+                .creditAmount(amount)
+                .transactionDate(date)
+                .accountDebitedUuid(DEBITED)
+                .accountCreditedUuid(CREDITED)
+                .accountDebitedType(CategoryType.BANKS_AND_CASH)
+                .accountCreditedType(CategoryType.EXPENSES)
+                .accountDebitedCategoryUuid(CATEGORY)
+                .accountCreditedCategoryUuid(CATEGORY)
+                .build();
+    }
+
+    @Test
+    public void testRecordIndex() {
+        var cache = new DataCache();
+
+        var transactions = new ArrayList<Transaction>();
+        for (int i = 0; i < 100; i++) {
+            transactions.add(newTransaction(BigDecimal.valueOf(i), LocalDate.now()));
+        }
+        cache.getTransactions().setAll(transactions);
+
+        for (var t : transactions) {
+            assertEquals(t, cache.getTransaction(t.uuid()).orElseThrow());
+        }
+
+        // Remove from the middle shifts positions of the remaining records
+        var removed = transactions.get(10);
+        cache.remove(removed);
+        assertTrue(cache.getTransaction(removed.uuid()).isEmpty());
+        assertEquals(99, cache.getTransactions().size());
+
+        var last = transactions.getLast();
+        var updated = last.check(true);
+        cache.update(updated);
+        assertEquals(updated, cache.getTransaction(last.uuid()).orElseThrow());
+        assertEquals(updated, cache.getTransactions().getLast());
+
+        cache.getTransactions().setAll(List.of());
+        assertTrue(cache.getTransaction(last.uuid()).isEmpty());
+    }
+
+    @Test
+    public void testTransactionIndexes() {
+        var cache = new DataCache();
+
+        var date = LocalDate.of(2024, 5, 10);
+        var t1 = newTransaction(BigDecimal.ONE, date);
+        var t2 = newTransaction(BigDecimal.TWO, date.plusMonths(1));
+        var detail = new Transaction.Builder(newTransaction(BigDecimal.TEN, date))
+                .parentUuid(t1.uuid())
+                .build();
+        cache.getTransactions().setAll(List.of(t1, t2, detail));
+
+        assertEquals(3, cache.getTransactionCount(newAccount(DEBITED)));
+        assertEquals(List.of(t1, detail), cache.getTransactions(5, 2024));
+        assertEquals(List.of(t2), cache.getTransactions(6, 2024));
+        assertEquals(List.of(detail), cache.getTransactionDetails(t1));
+
+        // Moving transaction to another month keeps account index intact
+        var moved = new Transaction.Builder(t2)
+                .transactionDate(date)
+                .build();
+        cache.update(moved);
+        assertTrue(cache.getTransactions(6, 2024).isEmpty());
+        assertEquals(List.of(t1, detail, moved), cache.getTransactions(5, 2024));
+        assertEquals(List.of(t1, moved, detail), cache.getTransactions(newAccount(CREDITED)));
+
+        cache.remove(detail);
+        assertTrue(cache.getTransactionDetails(t1).isEmpty());
+        assertEquals(2, cache.getTransactions(List.of(newAccount(DEBITED), newAccount(CREDITED))).size());
+    }
+
+    private static Account newAccount(UUID uuid) {
+        return new Account.Builder()
+                .uuid(uuid)
+                .name(uuid.toString())
+                .type(CategoryType.BANKS_AND_CASH)
+                .categoryUuid(CATEGORY)
+                .build();
+    }
+}
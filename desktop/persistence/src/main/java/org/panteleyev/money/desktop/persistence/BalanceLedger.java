@@ -0,0 +1,133 @@
+/*
+ Copyright © 2024 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.desktop.persistence;
+
+import org.panteleyev.money.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running balances of all accounts. Balances are built once from the full list of transactions and then maintained
+ * by applying the difference between old and new versions of each changed transaction.
+ * <p>
+ * Balance rules are the same as in {@link org.panteleyev.money.desktop.commons.DataCache#calculateBalance}: detail
+ * transactions are ignored, credited account receives credit amount, debited account loses amount.
+ */
+final class BalanceLedger {
+    record Balance(BigDecimal total, BigDecimal waiting) {
+        static final Balance ZERO = new Balance(BigDecimal.ZERO, BigDecimal.ZERO);
+
+        Balance add(Balance other) {
+            return new Balance(total.add(other.total), waiting.add(other.waiting));
+        }
+
+        Balance negate() {
+            return new Balance(total.negate(), waiting.negate());
+        }
+    }
+
+    private final Map<UUID, Balance> balances = new ConcurrentHashMap<>();
+
+    void clear() {
+        balances.clear();
+    }
+
+    /**
+     * Adds transactions to the balances. Balances of all accounts are built by clearing the ledger and adding chunks
+     * of transactions while they are being read.
+     *
+     * @param transactions transactions
+     */
+    void add(Collection<Transaction> transactions) {
+        for (var t : transactions) {
+            apply(t, false);
+        }
+    }
+
+    /**
+     * Rebuilds all balances from precalculated values.
+     *
+     * @param accountBalances balances by account UUID
+     */
+    void rebuild(Map<UUID, Balance> accountBalances) {
+        balances.clear();
+        balances.putAll(accountBalances);
+    }
+
+    Balance get(UUID accountUuid) {
+        return balances.getOrDefault(accountUuid, Balance.ZERO);
+    }
+
+    /**
+     * Returns current balances of the specified accounts.
+     *
+     * @param accountUuids account UUIDs
+     * @return balances by account UUID
+     */
+    Map<UUID, Balance> snapshot(Collection<UUID> accountUuids) {
+        var snapshot = new HashMap<UUID, Balance>();
+        for (var uuid : accountUuids) {
+            snapshot.put(uuid, get(uuid));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Restores balances previously returned by {@link #snapshot(Collection)}.
+     *
+     * @param snapshot balances by account UUID
+     */
+    void restore(Map<UUID, Balance> snapshot) {
+        balances.putAll(snapshot);
+    }
+
+    /**
+     * Applies transaction change to the balances.
+     *
+     * @param oldTransaction transaction before the change, {@code null} if transaction was inserted
+     * @param newTransaction transaction after the change, {@code null} if transaction was deleted
+     * @return set of accounts that may have been affected
+     */
+    Set<UUID> apply(Transaction oldTransaction, Transaction newTransaction) {
+        var accounts = new HashSet<UUID>();
+        if (oldTransaction != null) {
+            apply(oldTransaction, true);
+            accounts.add(oldTransaction.accountDebitedUuid());
+            accounts.add(oldTransaction.accountCreditedUuid());
+        }
+        if (newTransaction != null) {
+            apply(newTransaction, false);
+            accounts.add(newTransaction.accountDebitedUuid());
+            accounts.add(newTransaction.accountCreditedUuid());
+        }
+        return accounts;
+    }
+
+    private void apply(Transaction t, boolean revert) {
+        if (t.parentUuid() != null) {
+            return;
+        }
+
+        var credit = delta(t, t.creditAmount());
+        balances.merge(t.accountCreditedUuid(), revert ? credit.negate() : credit, Balance::add);
+
+        if (!Objects.equals(t.accountDebitedUuid(), t.accountCreditedUuid())) {
+            var debit = delta(t, Transaction.getNegatedAmount(t));
+            balances.merge(t.accountDebitedUuid(), revert ? debit.negate() : debit, Balance::add);
+        }
+    }
+
+    private static Balance delta(Transaction t, BigDecimal amount) {
+        return new Balance(amount, t.checked() ? BigDecimal.ZERO : amount);
+    }
+}
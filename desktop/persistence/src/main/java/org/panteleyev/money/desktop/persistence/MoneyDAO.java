@@ -16,6 +16,7 @@ import org.panteleyev.money.model.Contact;
 import org.panteleyev.money.model.Currency;
 import org.panteleyev.money.model.Icon;
 import org.panteleyev.money.model.MoneyDocument;
+import org.panteleyev.money.model.MoneyRecord;
 import org.panteleyev.money.model.PeriodicPayment;
 import org.panteleyev.money.model.Transaction;
 import org.panteleyev.money.model.exchange.ExchangeSecurity;
@@ -26,13 +27,17 @@ import org.postgresql.ds.PGSimpleDataSource;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -54,6 +59,17 @@ public class MoneyDAO implements DocumentProvider {
     private final InvestmentDealRepository investmentDealRepository = new InvestmentDealRepository();
     private final ExchangeSecuritySplitRepository exchangeSecuritySplitRepository = new ExchangeSecuritySplitRepository();
 
+    private final BalanceLedger balanceLedger = new BalanceLedger();
+    private volatile boolean verifyBalances = false;
+
+    // Number of recent months of transactions loaded on preload, 0 means all transactions
+    private volatile int transactionWindow = 0;
+    // Date of the oldest loaded transactions, null means all transactions are loaded
+    private LocalDate loadedFrom = null;
+    // Date of the oldest requested transactions, may be older than loadedFrom while loading is in progress
+    private LocalDate requestedFrom = null;
+    private CompletableFuture<Void> transactionLoading = CompletableFuture.completedFuture(null);
+
     private static final int BATCH_SIZE = 1000;
 
     public static final Consumer<String> IGNORE_PROGRESS = _ -> {};
@@ -62,6 +78,16 @@ public class MoneyDAO implements DocumentProvider {
         this.cache = cache;
     }
 
+    /**
+     * Enables consistency check of account balances. When enabled each incremental balance update is compared with
+     * the full recalculation, mismatch results in {@link IllegalStateException} and rollback of the operation.
+     *
+     * @param verifyBalances whether consistency check is enabled
+     */
+    public void setVerifyBalances(boolean verifyBalances) {
+        this.verifyBalances = verifyBalances;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Generic methods
     ////////////////////////////////////////////////////////////////////////////
@@ -96,6 +122,107 @@ public class MoneyDAO implements DocumentProvider {
         }
     }
 
+    /**
+     * Sets number of recent months of transactions loaded on preload. Older transactions are loaded on demand via
+     * {@link #ensureTransactionsLoaded(LocalDate)}. Account balances are always calculated over all transactions.
+     *
+     * @param months number of months, 0 means all transactions
+     */
+    public void setTransactionWindow(int months) {
+        if (months < 0) {
+            throw new IllegalArgumentException("Number of months must be >= 0");
+        }
+        this.transactionWindow = months;
+    }
+
+    /**
+     * Returns date of the oldest loaded transactions.
+     *
+     * @return date or empty if all transactions are loaded
+     */
+    public synchronized Optional<LocalDate> getLoadedFrom() {
+        return Optional.ofNullable(loadedFrom);
+    }
+
+    /**
+     * Makes sure that all transactions starting from the specified date are loaded into the cache. Transactions are
+     * read in a background thread and added to the cache in the JavaFX application thread.
+     *
+     * @param from start date, {@code null} means all transactions
+     * @return future completed when transactions are added to the cache
+     */
+    public CompletableFuture<Void> ensureTransactionsLoaded(LocalDate from) {
+        return ensureTransactionsLoaded(from, Platform::runLater);
+    }
+
+    /**
+     * Makes sure that all transactions starting from the specified date are loaded into the cache. Transactions are
+     * read in a background thread, requests are executed one after another.
+     *
+     * @param from     start date, {@code null} means all transactions
+     * @param executor executor used to update the cache
+     * @return future completed when transactions are added to the cache
+     */
+    public synchronized CompletableFuture<Void> ensureTransactionsLoaded(LocalDate from, Executor executor) {
+        if (!isBefore(from, requestedFrom)) {
+            return transactionLoading;
+        }
+
+        requestedFrom = from;
+        transactionLoading = transactionLoading
+                .exceptionally(_ -> null)
+                .thenApplyAsync(_ -> loadTransactions(from), Thread::startVirtualThread)
+                .thenAcceptAsync(transactions -> {
+                    cache.getTransactions().addAll(
+                            transactions.stream()
+                                    .filter(t -> cache.getTransaction(t.uuid()).isEmpty())
+                                    .toList()
+                    );
+                    synchronized (this) {
+                        loadedFrom = from;
+                    }
+                }, executor)
+                .whenComplete((_, ex) -> {
+                    if (ex != null) {
+                        synchronized (this) {
+                            requestedFrom = loadedFrom;
+                        }
+                    }
+                });
+        return transactionLoading;
+    }
+
+    private List<Transaction> loadTransactions(LocalDate from) {
+        LocalDate to;
+        synchronized (this) {
+            to = loadedFrom;
+        }
+        if (!isBefore(from, to)) {
+            return List.of();
+        }
+
+        return withNewConnection(conn -> {
+            return transactionRepository.getByDateRange(conn, from, to);
+        });
+    }
+
+    /**
+     * Compares start dates of transaction ranges, {@code null} means all transactions.
+     */
+    private static boolean isBefore(LocalDate from, LocalDate loaded) {
+        return loaded != null && (from == null || from.isBefore(loaded));
+    }
+
+    /**
+     * Returns statistics of the connection pool if data source is pooled.
+     *
+     * @return pool statistics
+     */
+    public Optional<PooledDataSource.Statistics> getConnectionStatistics() {
+        return dataSource.get() instanceof PooledDataSource pool ?
+                Optional.of(pool.getStatistics()) : Optional.empty();
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Icons
     ////////////////////////////////////////////////////////////////////////////
@@ -247,10 +374,10 @@ public class MoneyDAO implements DocumentProvider {
     ////////////////////////////////////////////////////////////////////////////
 
     public void insertTransaction(Transaction transaction) {
-        withNewConnection(conn -> {
+        withTransactionChanges(List.of(), List.of(transaction), conn -> {
             transactionRepository.insert(conn, transaction);
             cache.add(transaction);
-            updateAccounts(conn, List.of(transaction));
+            updateAccounts(conn, balanceLedger.apply(null, transaction));
         });
     }
 
@@ -259,15 +386,20 @@ public class MoneyDAO implements DocumentProvider {
     }
 
     public void updateTransactions(Collection<Transaction> transactions) {
-        withNewConnection(conn -> {
-            var oldAndUpdatedTransactions = new ArrayList<Transaction>(transactions.size() * 2);
+        var oldTransactions = transactions.stream()
+                .map(t -> cache.getTransaction(t.uuid()).orElseThrow())
+                .toList();
+
+        withTransactionChanges(oldTransactions, transactions, conn -> {
+            transactionRepository.update(conn, BATCH_SIZE, transactions);
+
+            var accountIds = new HashSet<UUID>();
+            var oldIterator = oldTransactions.iterator();
             for (var t : transactions) {
-                oldAndUpdatedTransactions.add(t);
-                oldAndUpdatedTransactions.add(cache.getTransaction(t.uuid()).orElseThrow());
-                transactionRepository.update(conn, t);
                 cache.update(t);
+                accountIds.addAll(balanceLedger.apply(oldIterator.next(), t));
             }
-            updateAccounts(conn, oldAndUpdatedTransactions);
+            updateAccounts(conn, accountIds);
         });
     }
 
@@ -276,15 +408,78 @@ public class MoneyDAO implements DocumentProvider {
     }
 
     public void deleteTransactions(Collection<Transaction> transactions) {
-        withNewConnection(conn -> {
-            for (var t : transactions) {
-                transactionRepository.delete(conn, t);
+        var oldTransactions = transactions.stream()
+                .map(t -> cache.getTransaction(t.uuid()).orElse(t))
+                .toList();
+
+        withTransactionChanges(oldTransactions, List.of(), conn -> {
+            transactionRepository.delete(conn, transactions.stream().map(Transaction::uuid).toList());
+
+            var accountIds = new HashSet<UUID>();
+            for (var t : oldTransactions) {
                 cache.remove(t);
+                accountIds.addAll(balanceLedger.apply(t, null));
             }
-            updateAccounts(conn, transactions);
+            updateAccounts(conn, accountIds);
         });
     }
 
+    /**
+     * Executes transaction changes. Cache and balance ledger are modified inside the database transaction so the
+     * new balances can be verified and stored together with transactions. If the operation is rolled back, affected
+     * transactions, accounts and balances are restored to their previous state. Only transactions that were cached
+     * before the change are restored to the cache.
+     *
+     * @param oldTransactions transactions before the change
+     * @param newTransactions transactions after the change
+     * @param consumer        database operation
+     */
+    private void withTransactionChanges(
+            Collection<Transaction> oldTransactions,
+            Collection<Transaction> newTransactions,
+            Consumer<Connection> consumer
+    ) {
+        var accountIds = new HashSet<UUID>();
+        for (var t : oldTransactions) {
+            accountIds.add(t.accountDebitedUuid());
+            accountIds.add(t.accountCreditedUuid());
+        }
+        for (var t : newTransactions) {
+            accountIds.add(t.accountDebitedUuid());
+            accountIds.add(t.accountCreditedUuid());
+        }
+
+        var balances = balanceLedger.snapshot(accountIds);
+        var accounts = accountIds.stream()
+                .map(cache::getAccount)
+                .flatMap(Optional::stream)
+                .toList();
+        var cachedTransactions = oldTransactions.stream()
+                .filter(t -> cache.getTransaction(t.uuid()).isPresent())
+                .toList();
+
+        try {
+            withNewConnection(consumer);
+        } catch (RuntimeException ex) {
+            balanceLedger.restore(balances);
+            accounts.forEach(cache::update);
+
+            var oldUuids = new HashSet<UUID>();
+            for (var t : cachedTransactions) {
+                oldUuids.add(t.uuid());
+                if (cache.getTransaction(t.uuid()).isPresent()) {
+                    cache.update(t);
+                } else {
+                    cache.add(t);
+                }
+            }
+            newTransactions.stream()
+                    .filter(t -> !oldUuids.contains(t.uuid()))
+                    .forEach(cache::remove);
+            throw ex;
+        }
+    }
+
     public void checkTransactions(Collection<Transaction> transactions, boolean check) {
         updateTransactions(
                 transactions.stream()
@@ -415,23 +610,39 @@ public class MoneyDAO implements DocumentProvider {
     }
 
     /**
-     * This method recalculates total values for all involved accounts.
+     * This method updates total values for all involved accounts from the balance ledger.
      *
-     * @param transactions transactions that were added, updated or deleted.
+     * @param accountIds accounts affected by added, updated or deleted transactions
      */
-    private void updateAccounts(Connection conn, Collection<Transaction> transactions) {
-        var uniqueAccountIds = new HashSet<UUID>();
-        for (var t : transactions) {
-            uniqueAccountIds.add(t.accountDebitedUuid());
-            uniqueAccountIds.add(t.accountCreditedUuid());
-        }
-        for (var uuid : uniqueAccountIds) {
+    private void updateAccounts(Connection conn, Collection<UUID> accountIds) {
+        var accounts = new ArrayList<Account>(accountIds.size());
+        for (var uuid : accountIds) {
             cache.getAccount(uuid).ifPresent(account -> {
-                var total = cache.calculateBalance(account, false, t -> true);
-                var waiting = cache.calculateBalance(account, false, t -> !t.checked());
-                updateAccount(conn, account.updateBalance(total, waiting));
+                var balance = balanceLedger.get(uuid);
+                if (verifyBalances) {
+                    verifyBalance(account, balance);
+                }
+                accounts.add(account.updateBalance(balance.total(), balance.waiting()));
             });
         }
+
+        accountRepository.update(conn, BATCH_SIZE, accounts);
+        accounts.forEach(cache::update);
+    }
+
+    private void verifyBalance(Account account, BalanceLedger.Balance balance) {
+        if (getLoadedFrom().isPresent()) {
+            // Cache does not contain all transactions
+            return;
+        }
+
+        var total = cache.calculateBalance(account, false, _ -> true);
+        var waiting = cache.calculateBalance(account, false, t -> !t.checked());
+        if (total.compareTo(balance.total()) != 0 || waiting.compareTo(balance.waiting()) != 0) {
+            throw new IllegalStateException("Balance mismatch for account " + account.uuid()
+                    + ": expected " + total + "/" + waiting
+                    + ", ledger " + balance.total() + "/" + balance.waiting());
+        }
     }
 
     public void createTables() {
@@ -441,7 +652,7 @@ public class MoneyDAO implements DocumentProvider {
     }
 
     public void preload() {
-        preload(Platform::runLater, IGNORE_PROGRESS);
+        preloadParallel(Platform::runLater, IGNORE_PROGRESS);
     }
 
     public void preload(Executor executor, Consumer<String> progress) {
@@ -474,7 +685,7 @@ public class MoneyDAO implements DocumentProvider {
             progress.accept("done\n");
 
             progress.accept("    transactions... ");
-            var transactionList = transactionRepository.getAll(conn);
+            var transactionList = preloadTransactions(conn);
             progress.accept("done\n");
 
             progress.accept("    documents...");
@@ -499,27 +710,143 @@ public class MoneyDAO implements DocumentProvider {
 
             progress.accept("done\n");
 
-            CompletableFuture.supplyAsync(() -> {
-                cache.getIcons().setAll(iconList);
-                cache.getDocuments().setAll(documentList);
-                cache.getCategories().setAll(categoryList);
-                cache.getContacts().setAll(contactList);
-                cache.getCurrencies().setAll(currencyList);
-                cache.getAccounts().setAll(accountList);
-                cache.getCards().setAll(cardList);
-                cache.getTransactions().setAll(transactionList);
-                cache.getPeriodicPayments().setAll(periodicPaymentsList);
-                cache.getExchangeSecurities().setAll(exchangeSecuritiesList);
-                cache.getInvestmentDeals().setAll(investmentList);
-                cache.getExchangeSecuritySplits().setAll(exchangeSecuritySplitsList);
-                return null;
-            }, executor);
+            applyPreloadedData(new PreloadedData(
+                    iconList, documentList, categoryList, contactList, currencyList, accountList, cardList,
+                    transactionList, periodicPaymentsList, exchangeSecuritiesList, investmentList,
+                    exchangeSecuritySplitsList
+            ), executor);
         });
     }
 
+    /**
+     * Preloads all tables concurrently. Each table is read in a virtual thread using its own connection, time spent
+     * for each table is reported via progress consumer. Data is passed to the cache only after all tables are read.
+     *
+     * @param executor executor used to update the cache
+     * @param progress progress consumer
+     */
+    public void preloadParallel(Executor executor, Consumer<String> progress) {
+        Consumer<String> syncProgress = message -> {
+            synchronized (progress) {
+                progress.accept(message);
+            }
+        };
+
+        syncProgress.accept("Preloading data...\n");
+        var start = System.currentTimeMillis();
+
+        try (var loader = Executors.newVirtualThreadPerTaskExecutor()) {
+            var icons = preloadAsync("icons", iconRepository::getAll, loader, syncProgress);
+            var categories = preloadAsync("categories", categoryRepository::getAll, loader, syncProgress);
+            var contacts = preloadAsync("contacts", contactRepository::getAll, loader, syncProgress);
+            var currencies = preloadAsync("currencies", currencyRepository::getAll, loader, syncProgress);
+            var accounts = preloadAsync("accounts", accountRepository::getAll, loader, syncProgress);
+            var cards = preloadAsync("cards", cardRepository::getAll, loader, syncProgress);
+            var transactions = preloadAsync("transactions", this::preloadTransactions, loader, syncProgress);
+            var documents = preloadAsync("documents", documentRepository::getAll, loader, syncProgress);
+            var periodicPayments =
+                    preloadAsync("periodic payments", periodicPaymentRepository::getAll, loader, syncProgress);
+            var securities = preloadAsync("securities", exchangeSecurityRepository::getAll, loader, syncProgress);
+            var investments = preloadAsync("investments", investmentDealRepository::getAll, loader, syncProgress);
+            var splits = preloadAsync("security splits", exchangeSecuritySplitRepository::getAll, loader, syncProgress);
+
+            CompletableFuture.allOf(icons, categories, contacts, currencies, accounts, cards, transactions,
+                    documents, periodicPayments, securities, investments, splits).join();
+
+            syncProgress.accept("done, " + (System.currentTimeMillis() - start) + " ms\n");
+
+            applyPreloadedData(new PreloadedData(
+                    icons.join(), documents.join(), categories.join(), contacts.join(), currencies.join(),
+                    accounts.join(), cards.join(), transactions.join(), periodicPayments.join(),
+                    securities.join(), investments.join(), splits.join()
+            ), executor);
+        }
+    }
+
+    private <T extends MoneyRecord> CompletableFuture<List<T>> preloadAsync(
+            String name,
+            Function<Connection, List<T>> reader,
+            ExecutorService loader,
+            Consumer<String> progress)
+    {
+        return CompletableFuture.supplyAsync(() -> {
+            var start = System.currentTimeMillis();
+            var result = withNewConnection(reader);
+            progress.accept("    " + name + "... done, " + result.size() + " records, "
+                    + (System.currentTimeMillis() - start) + " ms\n");
+            return result;
+        }, loader);
+    }
+
+    private record PreloadedData(
+            List<Icon> icons,
+            List<MoneyDocument> documents,
+            List<Category> categories,
+            List<Contact> contacts,
+            List<Currency> currencies,
+            List<Account> accounts,
+            List<Card> cards,
+            List<Transaction> transactions,
+            List<PeriodicPayment> periodicPayments,
+            List<ExchangeSecurity> exchangeSecurities,
+            List<InvestmentDeal> investmentDeals,
+            List<ExchangeSecuritySplit> exchangeSecuritySplits
+    ) {
+    }
+
+    /**
+     * Reads transactions according to the transaction window and rebuilds balance ledger.
+     */
+    private List<Transaction> preloadTransactions(Connection conn) {
+        var months = transactionWindow;
+        if (months == 0) {
+            var transactions = new ArrayList<Transaction>();
+            balanceLedger.clear();
+            transactionRepository.getAll(conn, BATCH_SIZE, chunk -> {
+                transactions.addAll(chunk);
+                balanceLedger.add(chunk);
+            });
+            setLoadedFrom(null);
+            return transactions;
+        } else {
+            var from = LocalDate.now().minusMonths(months).withDayOfMonth(1);
+            balanceLedger.rebuild(transactionRepository.getBalances(conn));
+            setLoadedFrom(from);
+            return transactionRepository.getByDateRange(conn, from, null);
+        }
+    }
+
+    private synchronized void setLoadedFrom(LocalDate loadedFrom) {
+        this.loadedFrom = loadedFrom;
+        this.requestedFrom = loadedFrom;
+    }
+
+    private void applyPreloadedData(PreloadedData data, Executor executor) {
+        CompletableFuture.supplyAsync(() -> {
+            cache.getIcons().setAll(data.icons());
+            cache.getDocuments().setAll(data.documents());
+            cache.getCategories().setAll(data.categories());
+            cache.getContacts().setAll(data.contacts());
+            cache.getCurrencies().setAll(data.currencies());
+            cache.getAccounts().setAll(data.accounts());
+            cache.getCards().setAll(data.cards());
+            cache.getTransactions().setAll(data.transactions());
+            cache.getPeriodicPayments().setAll(data.periodicPayments());
+            cache.getExchangeSecurities().setAll(data.exchangeSecurities());
+            cache.getInvestmentDeals().setAll(data.investmentDeals());
+            cache.getExchangeSecuritySplits().setAll(data.exchangeSecuritySplits());
+            return null;
+        }, executor);
+    }
+
     public void initialize(DataSource ds) {
-        dataSource.set(ds);
+        var previous = dataSource.getAndSet(ds);
+        if (previous instanceof PooledDataSource pool && previous != ds) {
+            pool.close();
+        }
         cache.clear();
+        balanceLedger.clear();
+        setLoadedFrom(null);
     }
 
     public void importFullDump(Import imp, Consumer<String> progress) {
@@ -0,0 +1,271 @@
+/*
+ Copyright © 2024 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.desktop.persistence;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Simple connection pool on top of another data source. Connections returned by {@link #getConnection()} are
+ * returned to the pool on {@link Connection#close()}.
+ * <p>
+ * Desktop application needs only a few connections for a single user, so the pool is kept minimal: idle connections
+ * are validated before reuse, returned connections are rolled back and reset to auto-commit mode.
+ */
+public final class PooledDataSource implements DataSource, AutoCloseable {
+    /**
+     * Pool settings.
+     *
+     * @param maxSize            maximum number of connections
+     * @param idleTimeout        idle connections older than this timeout are closed instead of reuse
+     * @param connectionTimeout  maximum time to wait for a free connection
+     * @param validationTimeout  timeout of the connection validation rounded up to whole seconds, zero disables
+     *                           validation
+     */
+    public record Settings(int maxSize, Duration idleTimeout, Duration connectionTimeout, Duration validationTimeout) {
+        public static final Settings DEFAULT = new Settings(
+                16, Duration.ofMinutes(10), Duration.ofSeconds(30), Duration.ofSeconds(5)
+        );
+
+        public Settings {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("Pool size must be >= 1");
+            }
+        }
+    }
+
+    /**
+     * Pool statistics.
+     *
+     * @param active          connections currently in use
+     * @param idle            connections ready for reuse
+     * @param created         physical connections opened since pool creation
+     * @param acquired        number of successful connection requests
+     * @param totalWaitTime   total time spent waiting for connections
+     * @param maxWaitTime     maximum time spent waiting for a connection
+     */
+    public record Statistics(int active, int idle, long created, long acquired, Duration totalWaitTime,
+                             Duration maxWaitTime)
+    {
+        public Duration averageWaitTime() {
+            return acquired == 0 ? Duration.ZERO : totalWaitTime.dividedBy(acquired);
+        }
+    }
+
+    private record IdleConnection(Connection connection, long releasedAt) {
+    }
+
+    private final DataSource target;
+    private final Settings settings;
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private volatile boolean closed = false;
+
+    public PooledDataSource(DataSource target, Settings settings) {
+        this.target = target;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+    }
+
+    public Statistics getStatistics() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new Statistics(active.get(), idleCount, created.get(), acquired.get(),
+                Duration.ofNanos(totalWaitNanos.get()), Duration.ofNanos(maxWaitNanos.get()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        var start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.connectionTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLException("Timeout waiting for connection");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ex);
+        }
+
+        try {
+            var connection = acquire();
+            var wait = System.nanoTime() - start;
+            totalWaitNanos.addAndGet(wait);
+            maxWaitNanos.accumulateAndGet(wait, Math::max);
+            acquired.incrementAndGet();
+            active.incrementAndGet();
+            return wrap(connection);
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (idle) {
+            while (!idle.isEmpty()) {
+                closeQuietly(idle.poll().connection());
+            }
+        }
+    }
+
+    private Connection acquire() throws SQLException {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                var connection = target.getConnection();
+                created.incrementAndGet();
+                return connection;
+            }
+
+            var idleTime = System.nanoTime() - candidate.releasedAt();
+            if (idleTime > settings.idleTimeout().toNanos() || !isValid(candidate.connection())) {
+                closeQuietly(candidate.connection());
+            } else {
+                return candidate.connection();
+            }
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        // JDBC timeout is in seconds, sub-second value must not disable validation
+        var timeout = (int) Math.ceilDiv(settings.validationTimeout().toNanos(), 1_000_000_000L);
+        try {
+            return timeout == 0 ? !connection.isClosed() : connection.isValid(timeout);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private void release(Connection connection) {
+        active.decrementAndGet();
+        try {
+            if (closed || connection.isClosed()) {
+                closeQuietly(connection);
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            synchronized (idle) {
+                idle.addFirst(new IdleConnection(connection, System.nanoTime()));
+            }
+        } catch (SQLException ex) {
+            closeQuietly(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        var released = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        if (released.compareAndSet(false, true)) {
+                            release(connection);
+                        }
+                        yield null;
+                    }
+                    case "isClosed" -> released.get() || connection.isClosed();
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Pooled " + connection;
+                    default -> {
+                        if (released.get()) {
+                            throw new SQLException("Connection is closed");
+                        }
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    }
+                }
+        );
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            // Connection is discarded anyway
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || target.isWrapperFor(iface);
+    }
+}
@@ -15,11 +15,15 @@ import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 abstract class Repository<T extends MoneyRecord> {
+    static final int FETCH_SIZE = 1000;
+
     private final String tableName;
 
     public Repository(String tableName) {
@@ -34,22 +38,58 @@ abstract class Repository<T extends MoneyRecord> {
 
     abstract protected String getUpdateSql();
 
+    /**
+     * Returns select statement without WHERE clause. Repositories that map result set by column index must override
+     * this method and list columns explicitly.
+     *
+     * @return select statement
+     */
+    protected String getSelectSql() {
+        return "SELECT * FROM " + tableName;
+    }
+
     public List<T> getAll(Connection conn) {
-        try (var st = conn.prepareStatement("SELECT * FROM " + tableName)) {
-            var result = new ArrayList<T>();
+        var result = new ArrayList<T>();
+        getAll(conn, FETCH_SIZE, result::addAll);
+        return result;
+    }
+
+    /**
+     * Reads all records and passes them to the consumer in chunks. Fetch size is set to the chunk size so the driver
+     * does not buffer the whole result set. Connection must not be in auto-commit mode, otherwise PostgreSQL driver
+     * ignores fetch size.
+     *
+     * @param conn      connection
+     * @param chunkSize number of records in each chunk
+     * @param consumer  chunk consumer, each chunk is a new list owned by the consumer
+     */
+    public void getAll(Connection conn, int chunkSize, Consumer<List<T>> consumer) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be >= 1");
+        }
+
+        try (var st = conn.prepareStatement(getSelectSql())) {
+            st.setFetchSize(chunkSize);
             try (var rs = st.executeQuery()) {
+                var chunk = new ArrayList<T>(chunkSize);
                 while (rs.next()) {
-                    result.add(fromResultSet(rs));
+                    chunk.add(fromResultSet(rs));
+                    if (chunk.size() == chunkSize) {
+                        consumer.accept(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    consumer.accept(chunk);
                 }
             }
-            return result;
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
     public Optional<T> get(Connection conn, UUID uuid) {
-        try (var st = conn.prepareStatement("SELECT * FROM " + tableName + " WHERE uuid = ?")) {
+        try (var st = conn.prepareStatement(getSelectSql() + " WHERE uuid = ?")) {
             st.setObject(1, uuid);
             try (var rs = st.executeQuery()) {
                 return rs.next() ? Optional.of(fromResultSet(rs)) : Optional.empty();
@@ -69,13 +109,57 @@ abstract class Repository<T extends MoneyRecord> {
     }
 
     public void insert(Connection conn, int batchSize, List<T> records) {
+        executeBatch(conn, getInsertSql(), batchSize, records);
+    }
+
+    public boolean update(Connection conn, T object) {
+        try (var st = conn.prepareStatement(getUpdateSql())) {
+            toStatement(st, object);
+            return st.execute();
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    public void update(Connection conn, int batchSize, Collection<T> records) {
+        executeBatch(conn, getUpdateSql(), batchSize, records);
+    }
+
+    public int delete(Connection conn, T object) {
+        try (var st = conn.prepareStatement("DELETE FROM " + tableName + " WHERE uuid = ?")) {
+            st.setObject(1, object.uuid());
+            return st.executeUpdate();
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Deletes all records with specified UUIDs using single statement.
+     *
+     * @param conn  connection
+     * @param uuids record UUIDs
+     * @return number of deleted records
+     */
+    public int delete(Connection conn, Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return 0;
+        }
+
+        try (var st = conn.prepareStatement("DELETE FROM " + tableName + " WHERE uuid = ANY(?)")) {
+            st.setArray(1, conn.createArrayOf("uuid", uuids.toArray()));
+            return st.executeUpdate();
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private void executeBatch(Connection conn, String sql, int batchSize, Collection<T> records) {
         if (batchSize < 1) {
             throw new IllegalArgumentException("Batch size must be >= 1");
         }
 
         if (!records.isEmpty()) {
-            var sql = getInsertSql();
-
             try (var st = conn.prepareStatement(sql)) {
                 int count = 0;
 
@@ -95,29 +179,16 @@ abstract class Repository<T extends MoneyRecord> {
         }
     }
 
-    public boolean update(Connection conn, T object) {
-        try (var st = conn.prepareStatement(getUpdateSql())) {
-            toStatement(st, object);
-            return st.execute();
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
-    }
-
-    public int delete(Connection conn, T object) {
-        try (var st = conn.prepareStatement("DELETE FROM " + tableName + " WHERE uuid = ?")) {
-            st.setObject(1, object.uuid());
-            return st.executeUpdate();
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
-    }
-
     static UUID getUuid(ResultSet set, String columnLabel) throws SQLException {
         var obj = set.getObject(columnLabel);
         return (obj instanceof UUID uuid) ? uuid : null;
     }
 
+    static UUID getUuid(ResultSet set, int columnIndex) throws SQLException {
+        var obj = set.getObject(columnIndex);
+        return (obj instanceof UUID uuid) ? uuid : null;
+    }
+
     static void setUuid(PreparedStatement st, int index, UUID uuid) throws SQLException {
         st.setObject(index, uuid);
     }
@@ -127,6 +198,11 @@ abstract class Repository<T extends MoneyRecord> {
         return obj instanceof String str ? E.valueOf(eClass, str) : null;
     }
 
+    static <E extends Enum<E>> E getEnum(ResultSet set, int columnIndex, Class<E> eClass) throws SQLException {
+        var obj = set.getObject(columnIndex);
+        return obj instanceof String str ? E.valueOf(eClass, str) : null;
+    }
+
     static void setEnum(PreparedStatement st, int index, Enum<?> value) throws SQLException {
         if (value == null) {
             st.setNull(index, Types.VARCHAR);
@@ -140,6 +216,11 @@ abstract class Repository<T extends MoneyRecord> {
         return date == null ? null : date.toLocalDate();
     }
 
+    static LocalDate getLocalDate(ResultSet set, int columnIndex) throws SQLException {
+        var date = set.getDate(columnIndex);
+        return date == null ? null : date.toLocalDate();
+    }
+
     static void setLocalDate(PreparedStatement st, int index, LocalDate localDate) throws SQLException {
         st.setDate(index, localDate == null ? null : Date.valueOf(localDate));
     }
@@ -8,9 +8,16 @@ import org.panteleyev.money.model.CategoryType;
 import org.panteleyev.money.model.Transaction;
 import org.panteleyev.money.model.TransactionType;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 final class TransactionRepository extends Repository<Transaction> {
 
@@ -65,30 +72,47 @@ final class TransactionRepository extends Repository<Transaction> {
                 """;
     }
 
+    @Override
+    protected String getSelectSql() {
+        return """
+                SELECT
+                    uuid, amount, credit_amount, transaction_date, type,
+                    comment, checked, acc_debited_uuid, acc_credited_uuid, acc_debited_type,
+                    acc_credited_type, acc_debited_category_uuid, acc_credited_category_uuid, contact_uuid,
+                    invoice_number, parent_uuid, detailed,
+                    statement_date, card_uuid, created, modified
+                FROM transaction
+                """;
+    }
+
+    /**
+     * Maps result set by column index, order of columns is defined by {@link #getSelectSql()}.
+     */
     @Override
     protected Transaction fromResultSet(ResultSet rs) throws SQLException {
+        var index = 1;
         return new Transaction(
-                getUuid(rs, "uuid"),
-                rs.getBigDecimal("amount"),
-                rs.getBigDecimal("credit_amount"),
-                getLocalDate(rs, "transaction_date"),
-                getEnum(rs, "type", TransactionType.class),
-                rs.getString("comment"),
-                rs.getBoolean("checked"),
-                getUuid(rs, "acc_debited_uuid"),
-                getUuid(rs, "acc_credited_uuid"),
-                getEnum(rs, "acc_debited_type", CategoryType.class),
-                getEnum(rs, "acc_credited_type", CategoryType.class),
-                getUuid(rs, "acc_debited_category_uuid"),
-                getUuid(rs, "acc_credited_category_uuid"),
-                getUuid(rs, "contact_uuid"),
-                rs.getString("invoice_number"),
-                getUuid(rs, "parent_uuid"),
-                rs.getBoolean("detailed"),
-                getLocalDate(rs, "statement_date"),
-                getUuid(rs, "card_uuid"),
-                rs.getLong("created"),
-                rs.getLong("modified")
+                getUuid(rs, index++),
+                rs.getBigDecimal(index++),
+                rs.getBigDecimal(index++),
+                getLocalDate(rs, index++),
+                getEnum(rs, index++, TransactionType.class),
+                rs.getString(index++),
+                rs.getBoolean(index++),
+                getUuid(rs, index++),
+                getUuid(rs, index++),
+                getEnum(rs, index++, CategoryType.class),
+                getEnum(rs, index++, CategoryType.class),
+                getUuid(rs, index++),
+                getUuid(rs, index++),
+                getUuid(rs, index++),
+                rs.getString(index++),
+                getUuid(rs, index++),
+                rs.getBoolean(index++),
+                getLocalDate(rs, index++),
+                getUuid(rs, index++),
+                rs.getLong(index++),
+                rs.getLong(index)
         );
     }
 
@@ -117,4 +141,83 @@ final class TransactionRepository extends Repository<Transaction> {
         st.setLong(index++, transaction.modified());
         setUuid(st, index, transaction.uuid());
     }
+
+    /**
+     * Returns transactions with date in the specified half-open range. Detail transactions of the selected
+     * parents are returned regardless of their own date.
+     *
+     * @param conn connection
+     * @param from start date inclusive, {@code null} means unbounded
+     * @param to   end date exclusive, {@code null} means unbounded
+     * @return transactions
+     */
+    List<Transaction> getByDateRange(Connection conn, LocalDate from, LocalDate to) {
+        var condition = new StringBuilder("TRUE");
+        if (from != null) {
+            condition.append(" AND transaction_date >= ?");
+        }
+        if (to != null) {
+            condition.append(" AND transaction_date < ?");
+        }
+
+        var sql = getSelectSql() + " WHERE (" + condition + ")"
+                + " OR parent_uuid IN (SELECT uuid FROM transaction WHERE " + condition + ")";
+
+        try (var st = conn.prepareStatement(sql)) {
+            st.setFetchSize(FETCH_SIZE);
+            var index = 1;
+            for (int i = 0; i < 2; i++) {
+                if (from != null) {
+                    setLocalDate(st, index++, from);
+                }
+                if (to != null) {
+                    setLocalDate(st, index++, to);
+                }
+            }
+
+            var result = new ArrayList<Transaction>();
+            try (var rs = st.executeQuery()) {
+                while (rs.next()) {
+                    result.add(fromResultSet(rs));
+                }
+            }
+            return result;
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Calculates balances of all accounts in the database using the same rules as {@link BalanceLedger}.
+     *
+     * @param conn connection
+     * @return balances by account UUID
+     */
+    Map<UUID, BalanceLedger.Balance> getBalances(Connection conn) {
+        var sql = """
+                SELECT account_uuid,
+                    SUM(amount) AS total,
+                    COALESCE(SUM(amount) FILTER (WHERE NOT checked), 0) AS waiting
+                FROM (
+                    SELECT acc_credited_uuid AS account_uuid, credit_amount AS amount, checked
+                    FROM transaction
+                    WHERE parent_uuid IS NULL
+                    UNION ALL
+                    SELECT acc_debited_uuid, -amount, checked
+                    FROM transaction
+                    WHERE parent_uuid IS NULL AND acc_debited_uuid <> acc_credited_uuid
+                ) AS t
+                GROUP BY account_uuid
+                """;
+
+        try (var st = conn.prepareStatement(sql); var rs = st.executeQuery()) {
+            var result = new HashMap<UUID, BalanceLedger.Balance>();
+            while (rs.next()) {
+                result.put(getUuid(rs, 1), new BalanceLedger.Balance(rs.getBigDecimal(2), rs.getBigDecimal(3)));
+            }
+            return result;
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 }
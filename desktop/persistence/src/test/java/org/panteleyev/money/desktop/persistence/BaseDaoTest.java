@@ -21,6 +21,7 @@ public class BaseDaoTest {
     public static final String ICON_JAVA = "java.png";
 
     private static PostgreSQLContainer<?> container = null;
+    protected static PGSimpleDataSource dataSource = null;
 
     protected static final DataCache cache = new DataCache();
     protected static final MoneyDAO dao = new MoneyDAO(cache);
@@ -40,7 +41,7 @@ public class BaseDaoTest {
                     .withPassword("test");
             container.start();
 
-            var dataSource = new PGSimpleDataSource();
+            dataSource = new PGSimpleDataSource();
             dataSource.setURL(container.getJdbcUrl());
             dataSource.setUser(container.getUsername());
             dataSource.setPassword(container.getPassword());
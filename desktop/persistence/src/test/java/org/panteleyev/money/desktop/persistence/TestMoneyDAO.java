@@ -18,10 +18,15 @@ import org.panteleyev.money.model.PeriodicPaymentType;
 import org.panteleyev.money.model.RecurrenceType;
 import org.panteleyev.money.model.Transaction;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class TestMoneyDAO extends BaseDaoTest {
@@ -211,6 +216,261 @@ public class TestMoneyDAO extends BaseDaoTest {
         assertEquals(update, retrieved.orElseThrow());
     }
     
+    @Test
+    public void testParallelPreload() {
+        var category = new Category.Builder()
+                .name(BaseTestUtils.randomString())
+                .type(CategoryType.BANKS_AND_CASH)
+                .uuid(UUID.randomUUID())
+                .build();
+        dao.insertCategory(category);
+
+        var categoryCount = cache.getCategories().size();
+        cache.getCategories().clear();
+
+        dao.preloadParallel(Runnable::run, _ -> {});
+
+        assertEquals(category, cache.getCategory(category.uuid()).orElseThrow());
+        assertEquals(categoryCount, cache.getCategories().size());
+    }
+
+    @Test
+    public void testAccountBalances() {
+        try {
+            dao.setVerifyBalances(true);
+
+            var category = new Category.Builder()
+                    .name(BaseTestUtils.randomString())
+                    .type(CategoryType.BANKS_AND_CASH)
+                    .uuid(UUID.randomUUID())
+                    .build();
+            dao.insertCategory(category);
+
+            var debited = new Account.Builder()
+                    .uuid(UUID.randomUUID())
+                    .name(BaseTestUtils.randomString())
+                    .type(category.type())
+                    .categoryUuid(category.uuid())
+                    .build();
+            dao.insertAccount(debited);
+
+            var credited = new Account.Builder(debited)
+                    .uuid(UUID.randomUUID())
+                    .name(BaseTestUtils.randomString())
+                    .build();
+            dao.insertAccount(credited);
+
+            var builder = new Transaction.Builder()
+                    .transactionDate(LocalDate.now())
+                    .accountDebitedUuid(debited.uuid())
+                    .accountCreditedUuid(credited.uuid())
+                    .accountDebitedCategoryUuid(category.uuid())
+                    .accountCreditedCategoryUuid(category.uuid())
+                    .accountDebitedType(debited.type())
+                    .accountCreditedType(credited.type());
+
+            var t1 = builder.uuid(UUID.randomUUID()).amount(BigDecimal.TEN).creditAmount(BigDecimal.TEN).build();
+            var t2 = builder.uuid(UUID.randomUUID()).amount(BigDecimal.ONE).creditAmount(BigDecimal.ONE).build();
+            dao.insertTransaction(t1);
+            dao.insertTransaction(t2);
+            assertBalance(credited.uuid(), new BigDecimal("11"), new BigDecimal("11"));
+            assertBalance(debited.uuid(), new BigDecimal("-11"), new BigDecimal("-11"));
+
+            dao.checkTransactions(List.of(t1), true);
+            assertBalance(credited.uuid(), new BigDecimal("11"), BigDecimal.ONE);
+
+            dao.deleteTransaction(t2);
+            assertBalance(credited.uuid(), BigDecimal.TEN, BigDecimal.ZERO);
+            assertBalance(debited.uuid(), BigDecimal.TEN.negate(), BigDecimal.ZERO);
+        } finally {
+            dao.setVerifyBalances(false);
+        }
+    }
+
+    @Test
+    public void testBalanceMismatchRollback() {
+        try {
+            dao.setVerifyBalances(true);
+
+            var category = new Category.Builder()
+                    .name(BaseTestUtils.randomString())
+                    .type(CategoryType.BANKS_AND_CASH)
+                    .uuid(UUID.randomUUID())
+                    .build();
+            dao.insertCategory(category);
+
+            var debited = new Account.Builder()
+                    .uuid(UUID.randomUUID())
+                    .name(BaseTestUtils.randomString())
+                    .type(category.type())
+                    .categoryUuid(category.uuid())
+                    .build();
+            dao.insertAccount(debited);
+
+            var credited = new Account.Builder(debited)
+                    .uuid(UUID.randomUUID())
+                    .name(BaseTestUtils.randomString())
+                    .build();
+            dao.insertAccount(credited);
+
+            var builder = new Transaction.Builder()
+                    .transactionDate(LocalDate.now())
+                    .amount(BigDecimal.TEN)
+                    .creditAmount(BigDecimal.TEN)
+                    .accountDebitedUuid(debited.uuid())
+                    .accountCreditedUuid(credited.uuid())
+                    .accountDebitedCategoryUuid(category.uuid())
+                    .accountCreditedCategoryUuid(category.uuid())
+                    .accountDebitedType(debited.type())
+                    .accountCreditedType(credited.type());
+
+            // Transaction known to the cache but not to the ledger causes balance mismatch
+            var unknown = builder.uuid(UUID.randomUUID()).build();
+            cache.add(unknown);
+
+            var transaction = builder.uuid(UUID.randomUUID()).build();
+            assertThrows(RuntimeException.class, () -> dao.insertTransaction(transaction));
+            assertTrue(cache.getTransaction(transaction.uuid()).isEmpty());
+            assertTrue(get(new TransactionRepository(), transaction.uuid()).isEmpty());
+            assertBalance(credited.uuid(), BigDecimal.ZERO, BigDecimal.ZERO);
+            assertBalance(debited.uuid(), BigDecimal.ZERO, BigDecimal.ZERO);
+
+            // Rollback must not add transaction that was not cached before deletion
+            var notCached = builder.uuid(UUID.randomUUID()).build();
+            assertThrows(RuntimeException.class, () -> dao.deleteTransaction(notCached));
+            assertTrue(cache.getTransaction(notCached.uuid()).isEmpty());
+            assertBalance(credited.uuid(), BigDecimal.ZERO, BigDecimal.ZERO);
+
+            // Ledger must be restored, otherwise the next verification fails
+            cache.remove(unknown);
+            dao.insertTransaction(transaction);
+            assertBalance(credited.uuid(), BigDecimal.TEN, BigDecimal.TEN);
+            assertBalance(debited.uuid(), BigDecimal.TEN.negate(), BigDecimal.TEN.negate());
+        } finally {
+            dao.setVerifyBalances(false);
+        }
+    }
+
+    @Test
+    public void testTransactionBatches() {
+        var category = new Category.Builder()
+                .name(BaseTestUtils.randomString())
+                .type(CategoryType.BANKS_AND_CASH)
+                .uuid(UUID.randomUUID())
+                .build();
+        dao.insertCategory(category);
+
+        var debited = new Account.Builder()
+                .uuid(UUID.randomUUID())
+                .name(BaseTestUtils.randomString())
+                .type(category.type())
+                .categoryUuid(category.uuid())
+                .build();
+        dao.insertAccount(debited);
+
+        var credited = new Account.Builder(debited)
+                .uuid(UUID.randomUUID())
+                .name(BaseTestUtils.randomString())
+                .build();
+        dao.insertAccount(credited);
+
+        var builder = new Transaction.Builder()
+                .transactionDate(LocalDate.now())
+                .amount(BigDecimal.ONE)
+                .creditAmount(BigDecimal.ONE)
+                .accountDebitedUuid(debited.uuid())
+                .accountCreditedUuid(credited.uuid())
+                .accountDebitedCategoryUuid(category.uuid())
+                .accountCreditedCategoryUuid(category.uuid())
+                .accountDebitedType(debited.type())
+                .accountCreditedType(credited.type());
+
+        // More than one batch
+        var count = 1005;
+        var transactions = new ArrayList<Transaction>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(builder.uuid(UUID.randomUUID()).build());
+        }
+        dao.withNewConnection(conn -> {
+            new TransactionRepository().insert(conn, 100, transactions);
+        });
+        dao.preload(Runnable::run, _ -> {});
+
+        dao.updateTransactions(List.of());
+        dao.deleteTransactions(List.of());
+
+        dao.checkTransactions(transactions, true);
+        var checked = get(new TransactionRepository(), transactions.getLast().uuid());
+        assertTrue(((Transaction) checked.orElseThrow()).checked());
+        assertTrue(cache.getTransaction(transactions.getFirst().uuid()).orElseThrow().checked());
+        assertBalance(credited.uuid(), new BigDecimal(count), BigDecimal.ZERO);
+        assertBalance(debited.uuid(), new BigDecimal(-count), BigDecimal.ZERO);
+
+        dao.deleteTransactions(transactions);
+        for (var t : transactions) {
+            assertTrue(cache.getTransaction(t.uuid()).isEmpty());
+        }
+        assertTrue(get(new TransactionRepository(), transactions.getLast().uuid()).isEmpty());
+        assertBalance(credited.uuid(), BigDecimal.ZERO, BigDecimal.ZERO);
+        assertBalance(debited.uuid(), BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Test
+    public void testTransactionWindow() {
+        var category = new Category.Builder()
+                .name(BaseTestUtils.randomString())
+                .type(CategoryType.BANKS_AND_CASH)
+                .uuid(UUID.randomUUID())
+                .build();
+        dao.insertCategory(category);
+
+        var account = new Account.Builder()
+                .uuid(UUID.randomUUID())
+                .name(BaseTestUtils.randomString())
+                .type(category.type())
+                .categoryUuid(category.uuid())
+                .build();
+        dao.insertAccount(account);
+
+        var builder = new Transaction.Builder()
+                .amount(BigDecimal.TEN)
+                .creditAmount(BigDecimal.TEN)
+                .accountDebitedUuid(account.uuid())
+                .accountCreditedUuid(account.uuid())
+                .accountDebitedCategoryUuid(category.uuid())
+                .accountCreditedCategoryUuid(category.uuid())
+                .accountDebitedType(account.type())
+                .accountCreditedType(account.type());
+
+        var recent = builder.uuid(UUID.randomUUID()).transactionDate(LocalDate.now()).build();
+        var old = builder.uuid(UUID.randomUUID()).transactionDate(LocalDate.now().minusYears(2)).build();
+        dao.insertTransaction(recent);
+        dao.insertTransaction(old);
+
+        try {
+            dao.setTransactionWindow(1);
+            dao.preloadParallel(Runnable::run, _ -> {});
+
+            assertTrue(dao.getLoadedFrom().isPresent());
+            assertTrue(cache.getTransaction(recent.uuid()).isPresent());
+            assertTrue(cache.getTransaction(old.uuid()).isEmpty());
+
+            dao.ensureTransactionsLoaded(LocalDate.now().minusYears(3), Runnable::run).join();
+            assertTrue(cache.getTransaction(old.uuid()).isPresent());
+            assertEquals(1, cache.getTransactions().stream().filter(t -> t.uuid().equals(old.uuid())).count());
+        } finally {
+            dao.setTransactionWindow(0);
+            dao.preloadParallel(Runnable::run, _ -> {});
+        }
+        assertTrue(dao.getLoadedFrom().isEmpty());
+    }
+
+    private static void assertBalance(UUID accountUuid, BigDecimal total, BigDecimal waiting) {
+        var account = cache.getAccount(accountUuid).orElseThrow();
+        assertEquals(0, total.compareTo(account.total()));
+        assertEquals(0, waiting.compareTo(account.totalWaiting()));
+    }
+
     @Test
     public void testPeriodicPayment() {
         var repo = new PeriodicPaymentRepository();
@@ -0,0 +1,139 @@
+/*
+ Copyright © 2024 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.desktop.persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class TestPooledDataSource extends BaseDaoTest {
+    @BeforeAll
+    public static void init() {
+        var initialized = BaseDaoTest.setupAndSkip();
+        assumeTrue(initialized);
+    }
+
+    @AfterAll
+    public static void tearDown() throws Exception {
+        BaseDaoTest.tearDown();
+    }
+
+    @Test
+    public void testConnectionReuse() throws Exception {
+        var settings = new PooledDataSource.Settings(2, Duration.ofMinutes(1), Duration.ofMillis(100),
+                Duration.ofSeconds(1));
+
+        try (var pool = new PooledDataSource(dataSource, settings)) {
+            var first = pool.getConnection();
+            var second = pool.getConnection();
+            assertEquals(2, pool.getStatistics().active());
+
+            assertThrows(SQLException.class, pool::getConnection);
+
+            first.close();
+            assertTrue(first.isClosed());
+            assertThrows(SQLException.class, first::createStatement);
+
+            try (var third = pool.getConnection(); var st = third.createStatement()) {
+                st.execute("SELECT 1");
+            }
+            second.close();
+
+            var statistics = pool.getStatistics();
+            assertEquals(0, statistics.active());
+            assertEquals(2, statistics.idle());
+            assertEquals(2, statistics.created());
+            assertEquals(3, statistics.acquired());
+        }
+    }
+
+    @Test
+    public void testLeakedConnection() throws Exception {
+        var settings = new PooledDataSource.Settings(1, Duration.ofMinutes(1), Duration.ofMillis(100),
+                Duration.ofSeconds(1));
+
+        try (var pool = new PooledDataSource(dataSource, settings)) {
+            // Connection that is never closed keeps its permit
+            var leaked = pool.getConnection();
+            assertThrows(SQLException.class, pool::getConnection);
+            assertEquals(1, pool.getStatistics().active());
+
+            // Uncommitted changes are rolled back when connection is returned
+            leaked.setAutoCommit(false);
+            try (var st = leaked.createStatement()) {
+                st.execute("CREATE TABLE pool_leak_test (id INT)");
+            }
+            leaked.close();
+            leaked.close();
+            assertEquals(0, pool.getStatistics().active());
+
+            try (var conn = pool.getConnection()) {
+                assertTrue(conn.getAutoCommit());
+                try (var st = conn.createStatement();
+                     var rs = st.executeQuery("SELECT to_regclass('pool_leak_test') IS NULL"))
+                {
+                    assertTrue(rs.next());
+                    assertTrue(rs.getBoolean(1));
+                }
+            }
+            assertEquals(1, pool.getStatistics().created());
+        }
+    }
+
+    @Test
+    public void testValidation() throws Exception {
+        var settings = new PooledDataSource.Settings(1, Duration.ofMinutes(1), Duration.ofMillis(100),
+                Duration.ofSeconds(1));
+
+        try (var pool = new PooledDataSource(dataSource, settings)) {
+            Connection physical;
+            try (var conn = pool.getConnection()) {
+                physical = conn.unwrap(Connection.class);
+            }
+
+            // Broken idle connection is discarded and replaced
+            physical.close();
+            try (var conn = pool.getConnection(); var st = conn.createStatement()) {
+                st.execute("SELECT 1");
+            }
+
+            var statistics = pool.getStatistics();
+            assertEquals(2, statistics.created());
+            assertEquals(1, statistics.idle());
+        }
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        var settings = new PooledDataSource.Settings(1, Duration.ZERO, Duration.ofMillis(100), Duration.ZERO);
+
+        try (var pool = new PooledDataSource(dataSource, settings)) {
+            pool.getConnection().close();
+            pool.getConnection().close();
+            assertEquals(2, pool.getStatistics().created());
+        }
+    }
+
+    @Test
+    public void testClosedPool() throws Exception {
+        var pool = new PooledDataSource(dataSource, PooledDataSource.Settings.DEFAULT);
+        var conn = pool.getConnection();
+        pool.close();
+
+        assertThrows(SQLException.class, pool::getConnection);
+        // Connection in use is closed when returned to the closed pool
+        conn.close();
+        assertEquals(0, pool.getStatistics().idle());
+    }
+}
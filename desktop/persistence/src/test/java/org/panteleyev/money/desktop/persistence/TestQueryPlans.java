@@ -0,0 +1,88 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.desktop.persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verifies that frequent queries use indexes. Test tables are small, so sequential scans are disabled to make
+ * planner choose index if it exists.
+ */
+public class TestQueryPlans extends BaseDaoTest {
+    private static final String UUID_VALUE = "'" + UUID.randomUUID() + "'";
+
+    @BeforeAll
+    public static void init() {
+        var initialized = BaseDaoTest.setupAndSkip();
+        assumeTrue(initialized);
+    }
+
+    @AfterAll
+    public static void tearDown() throws Exception {
+        BaseDaoTest.tearDown();
+    }
+
+    private static Stream<Arguments> testIndexUsageArguments() {
+        return Stream.of(
+                Arguments.of(
+                        "SELECT * FROM transaction WHERE acc_debited_uuid = " + UUID_VALUE
+                                + " OR acc_credited_uuid = " + UUID_VALUE,
+                        List.of("transaction_acc_debited_idx", "transaction_acc_credited_idx")
+                ),
+                Arguments.of(
+                        "SELECT * FROM transaction WHERE parent_uuid = " + UUID_VALUE,
+                        List.of("transaction_parent_idx")
+                ),
+                Arguments.of(
+                        "SELECT * FROM transaction WHERE transaction_date >= '2024-01-01'"
+                                + " AND transaction_date < '2024-02-01'",
+                        List.of("transaction_date_idx")
+                ),
+                Arguments.of(
+                        "SELECT * FROM transaction WHERE contact_uuid = " + UUID_VALUE,
+                        List.of("transaction_contact_idx")
+                ),
+                Arguments.of(
+                        "SELECT * FROM document WHERE owner_uuid = " + UUID_VALUE,
+                        List.of("document_owner_idx")
+                )
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("testIndexUsageArguments")
+    public void testIndexUsage(String query, List<String> indexes) {
+        var plan = dao.withNewConnection(conn -> {
+            try (var st = conn.createStatement()) {
+                st.execute("SET enable_seqscan = off");
+                var result = new StringBuilder();
+                try (var rs = st.executeQuery("EXPLAIN " + query)) {
+                    while (rs.next()) {
+                        result.append(rs.getString(1)).append("\n");
+                    }
+                }
+                return result.toString();
+            } catch (SQLException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+
+        for (var index : indexes) {
+            assertTrue(plan.contains(index), "Index " + index + " is not used:\n" + plan);
+        }
+    }
+}
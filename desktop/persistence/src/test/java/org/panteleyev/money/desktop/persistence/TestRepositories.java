@@ -33,10 +33,13 @@ import org.panteleyev.money.model.investment.InvestmentOperationType;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -569,6 +572,84 @@ public class TestRepositories extends BaseDaoTest {
         insertAndUpdate(repository, insert, update);
     }
 
+    @Test
+    @Order(14)
+    public void testTransactionChunks() {
+        var repository = new TransactionRepository();
+
+        var transactions = newTransactions(25);
+
+        dao.withNewConnection(conn -> {
+            repository.insert(conn, 10, transactions);
+
+            var chunks = new ArrayList<List<Transaction>>();
+            repository.getAll(conn, 10, chunks::add);
+
+            var all = chunks.stream().flatMap(List::stream).toList();
+            assertEquals(repository.getAll(conn), all);
+            assertTrue(all.containsAll(transactions));
+            assertTrue(chunks.stream().allMatch(chunk -> chunk.size() <= 10));
+        });
+    }
+
+    @Test
+    @Order(15)
+    public void testTransactionBatchUpdateAndDelete() {
+        var repository = new TransactionRepository();
+        var transactions = newTransactions(25);
+
+        dao.withNewConnection(conn -> {
+            repository.insert(conn, 10, transactions);
+
+            // Empty collections
+            repository.update(conn, 10, List.of());
+            assertEquals(0, repository.delete(conn, List.<UUID>of()));
+
+            // Number of records is not a multiple of batch size
+            var updates = transactions.stream()
+                    .map(t -> new Transaction.Builder(t)
+                            .amount(BaseTestUtils.randomBigDecimal())
+                            .comment(BaseTestUtils.randomString())
+                            .build())
+                    .toList();
+            repository.update(conn, 10, updates);
+            for (var t : updates) {
+                assertEquals(t, repository.get(conn, t.uuid()).orElseThrow());
+            }
+
+            var uuids = transactions.stream().map(Transaction::uuid).toList();
+            assertEquals(2, repository.delete(conn, uuids.subList(0, 2)));
+            assertTrue(repository.get(conn, uuids.get(0)).isEmpty());
+            assertTrue(repository.get(conn, uuids.get(1)).isEmpty());
+            assertTrue(repository.get(conn, uuids.get(2)).isPresent());
+
+            // Already deleted records are ignored
+            assertEquals(uuids.size() - 2, repository.delete(conn, uuids));
+            for (var uuid : uuids) {
+                assertTrue(repository.get(conn, uuid).isEmpty());
+            }
+        });
+    }
+
+    private static List<Transaction> newTransactions(int count) {
+        var transactions = new ArrayList<Transaction>();
+        for (int i = 0; i < count; i++) {
+            transactions.add(new Transaction.Builder()
+                    .uuid(UUID.randomUUID())
+                    .amount(BaseTestUtils.randomBigDecimal())
+                    .creditAmount(BaseTestUtils.randomBigDecimal())
+                    .transactionDate(LocalDate.now())
+                    .accountDebitedUuid(ACCOUNT_UUID)
+                    .accountCreditedUuid(ACCOUNT_UUID)
+                    .accountDebitedType(BaseTestUtils.randomCategoryType())
+                    .accountCreditedType(BaseTestUtils.randomCategoryType())
+                    .accountDebitedCategoryUuid(CATEGORY_UUID)
+                    .accountCreditedCategoryUuid(CATEGORY_UUID)
+                    .build());
+        }
+        return transactions;
+    }
+
     private static <T extends MoneyRecord> void insert(Repository<T> repository, T insert) {
         dao.withNewConnection(conn -> {
             var uuid = insert.uuid();
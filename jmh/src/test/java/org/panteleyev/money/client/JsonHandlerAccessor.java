@@ -0,0 +1,30 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.client;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Opens package-private {@link JsonHandler} to benchmarks, so they measure the code used by the client.
+ *
+ * @param <T> record type
+ */
+public final class JsonHandlerAccessor<T> {
+    private final JsonHandler<T> jsonHandler;
+
+    public JsonHandlerAccessor(Class<T> objectClass) {
+        this.jsonHandler = new JsonHandler<>(objectClass);
+    }
+
+    public List<T> parseArray(InputStream inputStream) {
+        return jsonHandler.parseArray(inputStream);
+    }
+
+    public void parseStream(InputStream inputStream, boolean smile, Consumer<List<T>> listConsumer, int chunkSize) {
+        jsonHandler.parseStream(inputStream, smile, listConsumer, chunkSize);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.jmh;
+
+import org.panteleyev.money.model.CategoryType;
+import org.panteleyev.money.model.Transaction;
+import org.panteleyev.money.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Generated records for benchmarks.
+ */
+final class BenchmarkData {
+    private BenchmarkData() {
+    }
+
+    static List<Transaction> transactions(int count) {
+        var now = System.currentTimeMillis();
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Transaction.Builder()
+                        .uuid(UUID.randomUUID())
+                        .amount(new BigDecimal(i + ".25"))
+                        .creditAmount(new BigDecimal(i + ".25"))
+                        .transactionDate(LocalDate.of(2025, 1, 1).plusDays(i % 365))
+                        .type(TransactionType.CARD_PAYMENT)
+                        .comment("Comment " + i)
+                        .accountDebitedUuid(UUID.randomUUID())
+                        .accountCreditedUuid(UUID.randomUUID())
+                        .accountDebitedType(CategoryType.BANKS_AND_CASH)
+                        .accountCreditedType(CategoryType.EXPENSES)
+                        .accountDebitedCategoryUuid(UUID.randomUUID())
+                        .accountCreditedCategoryUuid(UUID.randomUUID())
+                        .contactUuid(UUID.randomUUID())
+                        .created(now)
+                        .modified(now)
+                        .build())
+                .toList();
+    }
+}
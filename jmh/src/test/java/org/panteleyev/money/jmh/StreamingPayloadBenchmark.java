@@ -0,0 +1,98 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.jmh;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.panteleyev.money.client.JsonHandlerAccessor;
+import org.panteleyev.money.model.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares encodings of the transaction stream dump: JSON or Smile, plain or gzip compressed. Records are encoded as
+ * the server does and decoded by the client {@code JsonHandler}. Payload size and its transfer time over a
+ * 100 Mbit/s link are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamingPayloadBenchmark {
+    private static final int CHUNK_SIZE = 1000;
+    private static final double LINK_BYTES_PER_SECOND = 100_000_000 / 8.0;
+
+    private final ObjectMapper jsonMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new Jdk8Module())
+            .configure(MapperFeature.CAN_OVERRIDE_ACCESS_MODIFIERS, false)
+            .build();
+    private final ObjectMapper smileMapper = jsonMapper.copyWith(SmileFactory.builder()
+            .disable(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT)
+            .build());
+    private final JsonHandlerAccessor<Transaction> handler = new JsonHandlerAccessor<>(Transaction.class);
+
+    @Param({"100000"})
+    private int size;
+    @Param({"false", "true"})
+    private boolean smile;
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private List<Transaction> transactions;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        transactions = BenchmarkData.transactions(size);
+        payload = encode();
+        System.out.printf("%n%s%s payload: %d bytes, %.0f ms at 100 Mbit/s%n",
+                smile ? "Smile" : "JSON", gzip ? " + gzip" : "", payload.length,
+                payload.length / LINK_BYTES_PER_SECOND * 1000);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var out = gzip ? new GZIPOutputStream(bytes) : bytes;
+        // Mapper closes the stream, so compressed data is finished
+        (smile ? smileMapper : jsonMapper).writeValue(out, transactions);
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) throws IOException {
+        InputStream in = new ByteArrayInputStream(payload);
+        try (var body = gzip ? new GZIPInputStream(in) : in) {
+            handler.parseStream(body, smile, blackhole::consume, CHUNK_SIZE);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ Copyright © 2025 Petr Panteleyev <petr-panteleyev@yandex.ru>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.money.jmh;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.panteleyev.money.client.JsonHandlerAccessor;
+import org.panteleyev.money.model.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing of the transaction list received by the client. Run with {@code -prof gc} to compare allocation
+ * rates.
+ * <ul>
+ *     <li>{@link #treeAndConvert()} is the former client implementation that read each element into a tree and
+ *     converted it to the record. It is kept here as the baseline.</li>
+ *     <li>{@link #jsonHandler()} calls the current client {@code JsonHandler}.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionJsonBenchmark {
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new Jdk8Module())
+            .configure(MapperFeature.CAN_OVERRIDE_ACCESS_MODIFIERS, false)
+            .build();
+    private final JsonHandlerAccessor<Transaction> handler = new JsonHandlerAccessor<>(Transaction.class);
+
+    @Param({"1", "1000"})
+    private int size;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        json = objectMapper.writeValueAsBytes(BenchmarkData.transactions(size));
+    }
+
+    @Benchmark
+    public List<Transaction> treeAndConvert() throws IOException {
+        try (var parser = objectMapper.createParser(new ByteArrayInputStream(json))) {
+            var result = new ArrayList<Transaction>();
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                var tree = objectMapper.readTree(parser);
+                result.add(objectMapper.convertValue(tree, Transaction.class));
+            }
+            return result;
+        }
+    }
+
+    @Benchmark
+    public List<Transaction> jsonHandler() {
+        return handler.parseArray(new ByteArrayInputStream(json));
+    }
+}